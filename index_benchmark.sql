@@ -0,0 +1,105 @@
+-- Query plan comparison for the V2 player indexes on a 1,000,000 row table (MySQL 8.0.18+).
+-- Builds two copies of the same data in the test database: bench_player_v1 with the original
+-- schema (primary key only) and bench_player_v2 with the schema after V2 migration, then runs
+-- EXPLAIN ANALYZE for the queries GET /rest/players and /rest/players/count issue.
+--
+--   mysql -uroot -p --table < index_benchmark.sql > index_benchmark.txt
+--
+-- On MariaDB 10.x/11.x set max_recursive_iterations instead of cte_max_recursion_depth and run
+-- the queries with ANALYZE (or ANALYZE FORMAT=JSON for r_total_time_ms) instead of EXPLAIN ANALYZE.
+
+USE test;
+
+DROP TABLE IF EXISTS bench_player_v1;
+DROP TABLE IF EXISTS bench_player_v2;
+
+CREATE TABLE bench_player_v1
+(
+    id             BIGINT(20)  NOT NULL AUTO_INCREMENT,
+    name           VARCHAR(12) NULL,
+    title          VARCHAR(30) NULL,
+    race           VARCHAR(20) NULL,
+    profession     VARCHAR(20) NULL,
+    birthday       DATE        NULL,
+    banned         BIT(1)      NULL,
+    experience     INT(10)     NULL,
+    level          INT(3)      NULL,
+    untilNextLevel INT(10)     NULL,
+    PRIMARY KEY (id)
+)
+    ENGINE = InnoDB
+    DEFAULT CHARACTER SET = utf8;
+
+SET SESSION cte_max_recursion_depth = 1000000;
+
+INSERT INTO bench_player_v1(name, title, race, profession, birthday, banned, experience, level, untilNextLevel)
+SELECT name, title, race, profession, birthday, banned, experience, lvl, 50 * (lvl + 1) * (lvl + 2) - experience
+FROM (SELECT CONCAT('Player', n % 100000)                                                    AS name,
+             CONCAT('Title ', n % 7919)                                                      AS title,
+             ELT(1 + n % 7, 'HUMAN', 'DWARF', 'ELF', 'GIANT', 'ORC', 'TROLL', 'HOBBIT')     AS race,
+             ELT(1 + (n DIV 7) % 8, 'WARRIOR', 'ROGUE', 'SORCERER', 'CLERIC', 'PALADIN',
+                 'NAZGUL', 'WARLOCK', 'DRUID')                                               AS profession,
+             DATE_ADD('2000-01-01', INTERVAL n % 4000 DAY)                                   AS birthday,
+             n % 10 = 0                                                                      AS banned,
+             (n * 7919) % 10000001                                                           AS experience,
+             FLOOR((SQRT(2500 + 200 * ((n * 7919) % 10000001)) - 50) / 100)                  AS lvl
+      FROM (WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 1000000)
+            SELECT n FROM seq) AS numbers) AS generated;
+
+CREATE TABLE bench_player_v2 LIKE bench_player_v1;
+
+ALTER TABLE bench_player_v2
+    MODIFY name       VARCHAR(12) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin NULL,
+    MODIFY title      VARCHAR(30) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin NULL,
+    MODIFY race       ENUM ('HUMAN', 'DWARF', 'ELF', 'GIANT', 'ORC', 'TROLL', 'HOBBIT') NULL,
+    MODIFY profession ENUM ('WARRIOR', 'ROGUE', 'SORCERER', 'CLERIC', 'PALADIN', 'NAZGUL', 'WARLOCK', 'DRUID') NULL;
+
+CREATE INDEX idx_player_name ON bench_player_v2 (name);
+CREATE INDEX idx_player_experience ON bench_player_v2 (experience);
+CREATE INDEX idx_player_level ON bench_player_v2 (level);
+CREATE INDEX idx_player_birthday ON bench_player_v2 (birthday);
+CREATE INDEX idx_player_race_profession_experience ON bench_player_v2 (race, profession, experience);
+CREATE INDEX idx_player_profession_experience ON bench_player_v2 (profession, experience);
+
+INSERT INTO bench_player_v2 SELECT * FROM bench_player_v1;
+
+ANALYZE TABLE bench_player_v1, bench_player_v2;
+
+SELECT table_name, ROUND(data_length / 1024 / 1024) AS data_mb, ROUND(index_length / 1024 / 1024) AS index_mb
+FROM information_schema.tables
+WHERE table_schema = 'test' AND table_name LIKE 'bench_player_v%';
+
+-- race + profession + experience range, default order (GetAllTest test5)
+EXPLAIN ANALYZE SELECT * FROM bench_player_v1 WHERE race = 'ELF' AND profession = 'SORCERER' AND experience BETWEEN 50000 AND 150000 ORDER BY id LIMIT 3;
+EXPLAIN ANALYZE SELECT * FROM bench_player_v2 WHERE race = 'ELF' AND profession = 'SORCERER' AND experience BETWEEN 50000 AND 150000 ORDER BY id LIMIT 3;
+
+-- count for the same filter
+EXPLAIN ANALYZE SELECT COUNT(*) FROM bench_player_v1 WHERE race = 'ELF' AND profession = 'SORCERER' AND experience BETWEEN 50000 AND 150000;
+EXPLAIN ANALYZE SELECT COUNT(*) FROM bench_player_v2 WHERE race = 'ELF' AND profession = 'SORCERER' AND experience BETWEEN 50000 AND 150000;
+
+-- banned + level bounds (GetAllTest test6); no index, the primary key scan stops after the page
+EXPLAIN ANALYZE SELECT * FROM bench_player_v1 WHERE banned = 0 AND level BETWEEN 10 AND 30 ORDER BY id LIMIT 3;
+EXPLAIN ANALYZE SELECT * FROM bench_player_v2 WHERE banned = 0 AND level BETWEEN 10 AND 30 ORDER BY id LIMIT 3;
+
+-- order=EXPERIENCE, deep offset page
+EXPLAIN ANALYZE SELECT * FROM bench_player_v1 ORDER BY experience, id LIMIT 3 OFFSET 300000;
+EXPLAIN ANALYZE SELECT * FROM bench_player_v2 ORDER BY experience, id LIMIT 3 OFFSET 300000;
+
+-- order=EXPERIENCE, the same page reached with a cursor
+EXPLAIN ANALYZE SELECT * FROM bench_player_v1 WHERE experience > 2375700 OR (experience = 2375700 AND id > 300000) ORDER BY experience, id LIMIT 3;
+EXPLAIN ANALYZE SELECT * FROM bench_player_v2 WHERE experience > 2375700 OR (experience = 2375700 AND id > 300000) ORDER BY experience, id LIMIT 3;
+
+-- order=LEVEL, order=BIRTHDAY and order=NAME, first page
+EXPLAIN ANALYZE SELECT * FROM bench_player_v1 ORDER BY level, id LIMIT 3;
+EXPLAIN ANALYZE SELECT * FROM bench_player_v2 ORDER BY level, id LIMIT 3;
+EXPLAIN ANALYZE SELECT * FROM bench_player_v1 ORDER BY birthday, id LIMIT 3;
+EXPLAIN ANALYZE SELECT * FROM bench_player_v2 ORDER BY birthday, id LIMIT 3;
+EXPLAIN ANALYZE SELECT * FROM bench_player_v1 ORDER BY name, id LIMIT 3;
+EXPLAIN ANALYZE SELECT * FROM bench_player_v2 ORDER BY name, id LIMIT 3;
+
+-- profession + order=EXPERIENCE (leaderboard style)
+EXPLAIN ANALYZE SELECT * FROM bench_player_v1 WHERE profession = 'WARRIOR' ORDER BY experience DESC, id LIMIT 100;
+EXPLAIN ANALYZE SELECT * FROM bench_player_v2 WHERE profession = 'WARRIOR' ORDER BY experience DESC, id LIMIT 100;
+
+DROP TABLE bench_player_v1;
+DROP TABLE bench_player_v2;
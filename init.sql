@@ -5,6 +5,9 @@ CREATE DATABASE IF NOT EXISTS test
 
 USE rpg;
 
+-- init.sql recreates the baseline (V1) schema, so let Flyway apply every later migration again.
+DROP TABLE IF EXISTS flyway_schema_history;
+DROP TABLE IF EXISTS player_seq;
 DROP TABLE IF EXISTS player;
 
 CREATE TABLE player
@@ -0,0 +1,83 @@
+package com.game.benchmark;
+
+import org.apache.catalina.startup.Tomcat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// 1000 concurrent clients against an embedded Tomcat, with the controller handing the work to
+// playerExecutor (async=true) or running it on the container threads (async=false). All caches are
+// off so every request waits on JDBC; the connection pool and the executor get the prod sizes.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(1000)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g", "-Dhttp.maxConnections=1000"})
+public class AsyncEndpointBenchmark {
+
+    private static final int PLAYERS = 100_000;
+
+    @Param({"true", "false"})
+    public boolean async;
+
+    @Param({"200"})
+    public int containerThreads;
+
+    private Tomcat tomcat;
+    private AnnotationConfigWebApplicationContext context;
+    private String baseUrl;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        System.setProperty("player.async.enabled", String.valueOf(async));
+        System.setProperty("player.async.pool-size", "20");
+        System.setProperty("db.pool.maximum-size", "20");
+        System.setProperty("player.cache.enabled", "false");
+        System.setProperty("player.query-cache.enabled", "false");
+        System.setProperty("db.second-level-cache.enabled", "false");
+        System.setProperty("db.query-cache.enabled", "false");
+
+        context = BenchmarkData.createContext();
+        tomcat = BenchmarkData.startTomcat(context, containerThreads);
+        BenchmarkData.seedPlayers(context, PLAYERS);
+        baseUrl = "http://localhost:" + tomcat.getConnector().getLocalPort();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        tomcat.stop();
+        tomcat.destroy();
+    }
+
+    @Benchmark
+    public int getPlayer() throws IOException {
+        return get("/rest/players/" + (1 + ThreadLocalRandom.current().nextInt(PLAYERS)));
+    }
+
+    @Benchmark
+    public int getPageByRace() throws IOException {
+        return get("/rest/players?race=ELF&pageNumber=" + ThreadLocalRandom.current().nextInt(100) + "&pageSize=20");
+    }
+
+    private int get(String path) throws IOException {
+        return BenchmarkData.get(baseUrl + path);
+    }
+}
@@ -0,0 +1,136 @@
+package com.game.benchmark;
+
+import com.game.config.AppConfig;
+import com.game.config.WebConfig;
+import com.game.entity.Player;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+import com.game.service.PlayerChangePublisher;
+import org.apache.catalina.Context;
+import org.apache.catalina.Wrapper;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.startup.Tomcat;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.file.Files;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+final class BenchmarkData {
+
+    private static final int BATCH_SIZE = 10_000;
+    private static final LocalDate FIRST_BIRTHDAY = LocalDate.of(2000, 1, 1);
+
+    private BenchmarkData() {
+    }
+
+    // The dev profile: pooled in-memory H2 seeded from test.sql, the same setup the MockMvc tests use.
+    // Uncached, the Player and query caches and the Hibernate second-level and query cache are off, so
+    // every call reaches the database; cached, repeated calls measure cache hits.
+    static AnnotationConfigWebApplicationContext startContext(boolean cached) {
+        AnnotationConfigWebApplicationContext context = createContext();
+        if (!cached) {
+            Map<String, Object> uncached = new HashMap<>();
+            uncached.put("player.cache.enabled", "false");
+            uncached.put("player.query-cache.enabled", "false");
+            uncached.put("db.second-level-cache.enabled", "false");
+            uncached.put("db.query-cache.enabled", "false");
+            context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("uncached", uncached));
+        }
+        context.setServletContext(new MockServletContext());
+        context.refresh();
+        return context;
+    }
+
+    // Without the per-request SQL profiling of the dev profile unless asked for with -Dplayer.sql.profiling.enabled.
+    static AnnotationConfigWebApplicationContext createContext() {
+        if (System.getProperty("player.sql.profiling.enabled") == null) {
+            System.setProperty("player.sql.profiling.enabled", "false");
+        }
+        AnnotationConfigWebApplicationContext context = new AnnotationConfigWebApplicationContext();
+        context.getEnvironment().setActiveProfiles("dev");
+        context.register(AppConfig.class, WebConfig.class);
+        return context;
+    }
+
+    // Embedded Tomcat on a free port with the DispatcherServlet of the given, not yet refreshed, context.
+    static Tomcat startTomcat(AnnotationConfigWebApplicationContext context, int maxThreads) throws Exception {
+        Tomcat tomcat = new Tomcat();
+        tomcat.setBaseDir(Files.createTempDirectory("tomcat").toString());
+        Connector connector = tomcat.getConnector();
+        connector.setPort(0);
+        connector.setProperty("maxThreads", String.valueOf(maxThreads));
+        connector.setProperty("maxConnections", "2000");
+        connector.setProperty("acceptCount", "1000");
+        Context root = tomcat.addContext("", null);
+        Wrapper dispatcher = Tomcat.addServlet(root, "dispatcher", new DispatcherServlet(context));
+        dispatcher.setAsyncSupported(true);
+        dispatcher.setLoadOnStartup(1);
+        root.addServletMappingDecoded("/", "dispatcher");
+        tomcat.start();
+        return tomcat;
+    }
+
+    // GET with the body drained, so the keep-alive connection is reused; returns the status.
+    static int get(String url) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        int status = connection.getResponseCode();
+        try (InputStream body = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+            if (body != null) {
+                byte[] buffer = new byte[8192];
+                while (body.read(buffer) != -1) {
+                    // drain
+                }
+            }
+        }
+        return status;
+    }
+
+    // Replaces the player table content with the given number of pseudo-random players, ids 1..count.
+    static void seedPlayers(AnnotationConfigWebApplicationContext context, int count) {
+        JdbcTemplate jdbc = new JdbcTemplate(context.getBean(DataSource.class));
+        jdbc.execute("DELETE FROM player");
+        jdbc.execute("ALTER TABLE player ALTER COLUMN id RESTART WITH 1");
+
+        Random random = new Random(count);
+        Race[] races = Race.values();
+        Profession[] professions = Profession.values();
+        Player player = new Player();
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 1; i <= count; i++) {
+            player.setExperience(random.nextInt(10_000_001));
+            batch.add(new Object[]{
+                    "Pl" + i,
+                    "Title " + random.nextInt(10_000),
+                    races[random.nextInt(races.length)].name(),
+                    professions[random.nextInt(professions.length)].name(),
+                    Date.valueOf(FIRST_BIRTHDAY.plusDays(random.nextInt(4000))),
+                    random.nextInt(10) == 0,
+                    player.getExperience(),
+                    player.getLevel(),
+                    player.getUntilNextLevel()});
+            if (batch.size() == BATCH_SIZE || i == count) {
+                jdbc.batchUpdate("INSERT INTO player(name, title, race, profession, birthday, banned, experience, level, untilNextLevel) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+        jdbc.update("UPDATE player_seq SET next_val = ?", count + 1L);
+        // The rows were written behind the service; drop caches and rebuild the in-memory indexes.
+        context.getBean(PlayerChangePublisher.class).playersReloaded();
+    }
+}
@@ -0,0 +1,155 @@
+package com.game.benchmark;
+
+import com.game.controller.PlayerOrder;
+import com.game.dto.FilterDTO;
+import com.game.entity.Player;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+import com.game.service.PlayerColumns;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// The PlayerColumns query engine against a scan of the same players held as a list of entities:
+// columns* run a query on the columns, listScan* the equivalent stream filter/sort/skip/limit.
+// updateExperience measures keeping the columns current, one moved player per call.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class PlayerColumnsBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+    private static final LocalDate FIRST_BIRTHDAY = LocalDate.of(2000, 1, 1);
+
+    @Param({"100000", "1000000"})
+    public int players;
+
+    private List<Player> list;
+    private PlayerColumns columns;
+    private FilterDTO raceProfessionExperience;
+    private FilterDTO bannedLevels;
+    private FilterDTO nameContains;
+    private FilterDTO noFilter;
+    private int middleOffset;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(players);
+        Race[] races = Race.values();
+        Profession[] professions = Profession.values();
+        list = new ArrayList<>(players);
+        for (long id = 1; id <= players; id++) {
+            Player player = new Player("Pl" + id, "Title " + random.nextInt(10_000),
+                    races[random.nextInt(races.length)], professions[random.nextInt(professions.length)],
+                    random.nextInt(10_000_001), Date.valueOf(FIRST_BIRTHDAY.plusDays(random.nextInt(4000))),
+                    random.nextInt(10) == 0);
+            ReflectionTestUtils.setField(player, "id", id);
+            list.add(player);
+        }
+        columns = PlayerColumns.load(list::forEach);
+
+        raceProfessionExperience = new FilterDTO();
+        raceProfessionExperience.setRace(Race.ELF);
+        raceProfessionExperience.setProfession(Profession.SORCERER);
+        raceProfessionExperience.setMinExperience(50_000);
+        raceProfessionExperience.setMaxExperience(150_000);
+
+        bannedLevels = new FilterDTO();
+        bannedLevels.setBanned(false);
+        bannedLevels.setMinLevel(100);
+        bannedLevels.setMaxLevel(200);
+
+        nameContains = new FilterDTO();
+        nameContains.setName("77");
+
+        noFilter = new FilterDTO();
+        middleOffset = players / 2;
+    }
+
+    @Benchmark
+    public long[] columnsPageByRaceProfessionExperience() {
+        return columns.page(raceProfessionExperience, PlayerOrder.ID, null, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Player> listScanPageByRaceProfessionExperience() {
+        return list.stream()
+                .filter(player -> player.getRace() == Race.ELF && player.getProfession() == Profession.SORCERER
+                        && player.getExperience() >= 50_000 && player.getExperience() <= 150_000)
+                .limit(PAGE_SIZE)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public long columnsCountByBannedLevels() {
+        return columns.count(bannedLevels);
+    }
+
+    @Benchmark
+    public long listScanCountByBannedLevels() {
+        return list.stream()
+                .filter(player -> !player.getBanned() && player.getLevel() >= 100 && player.getLevel() <= 200)
+                .count();
+    }
+
+    @Benchmark
+    public long[] columnsPageByNameOrderedByLevel() {
+        return columns.page(nameContains, PlayerOrder.LEVEL, null, PAGE_SIZE, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Player> listScanPageByNameOrderedByLevel() {
+        return list.stream()
+                .filter(player -> player.getName().contains("77"))
+                .sorted(Comparator.comparing(Player::getLevel).thenComparing(Player::getId))
+                .skip(PAGE_SIZE)
+                .limit(PAGE_SIZE)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public long[] columnsPageOrderedByExperienceDeepOffset() {
+        return columns.page(noFilter, PlayerOrder.EXPERIENCE, null, middleOffset, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Player> listScanPageOrderedByExperienceDeepOffset() {
+        return list.stream()
+                .sorted(Comparator.comparing(Player::getExperience).thenComparing(Player::getId))
+                .skip(middleOffset)
+                .limit(PAGE_SIZE)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public int updateExperience() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Player player = list.get(random.nextInt(players));
+        player.setExperience(random.nextInt(10_000_001));
+        columns.put(player);
+        return columns.size();
+    }
+}
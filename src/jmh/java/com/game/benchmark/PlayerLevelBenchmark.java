@@ -0,0 +1,72 @@
+package com.game.benchmark;
+
+import com.game.entity.LevelCurve;
+import com.game.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Level math of the Player entity: setExperience recomputes level and untilNextLevel. The level*
+// benchmarks compare the LevelCurve table lookup with the boxed square root Player used before.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayerLevelBenchmark {
+
+    private static final int MASK = 4095;
+
+    private final int[] experience = new int[MASK + 1];
+    private final Player player = new Player();
+    private int index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < experience.length; i++) {
+            experience[i] = random.nextInt(LevelCurve.MAX_EXPERIENCE + 1);
+        }
+    }
+
+    @Benchmark
+    public Integer setExperience() {
+        player.setExperience(experience[index++ & MASK]);
+        return player.getUntilNextLevel();
+    }
+
+    @Benchmark
+    public Integer setExperienceLevelAndUntilNextLevel() {
+        player.setExperience(experience[index++ & MASK]);
+        player.setLevel(null);
+        player.setUntilNextLevel(null);
+        return player.getUntilNextLevel();
+    }
+
+    @Benchmark
+    public int levelTable() {
+        return LevelCurve.level(experience[index++ & MASK]);
+    }
+
+    @Benchmark
+    public Integer levelBoxedSqrt() {
+        Double result = (Math.sqrt(2500 + 200 * experience[index++ & MASK]) - 50) / 100;
+        return result.intValue();
+    }
+
+    @Benchmark
+    public int levelPrimitiveSqrt() {
+        return (int) ((Math.sqrt(2500 + 200 * experience[index++ & MASK]) - 50) / 100);
+    }
+}
@@ -0,0 +1,148 @@
+package com.game.benchmark;
+
+import com.game.controller.PlayerOrder;
+import com.game.dto.FilterDTO;
+import com.game.dto.PlayerCursor;
+import com.game.dto.PlayerDTO;
+import com.game.entity.Player;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+import com.game.service.PlayerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class PlayerServiceBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"1000", "100000", "1000000"})
+    public int players;
+
+    // false measures the database path, true the caches in front of it.
+    @Param({"false", "true"})
+    public boolean cached;
+
+    private AnnotationConfigWebApplicationContext context;
+    private PlayerService playerService;
+
+    private FilterDTO raceProfessionExperience;
+    private FilterDTO nameContains;
+    private FilterDTO longNameContains;
+    private FilterDTO titleContains;
+    private FilterDTO experienceDeepOffset;
+    private FilterDTO experienceDeepCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.startContext(cached);
+        BenchmarkData.seedPlayers(context, players);
+        playerService = context.getBean(PlayerService.class);
+
+        raceProfessionExperience = new FilterDTO();
+        raceProfessionExperience.setRace(Race.ELF);
+        raceProfessionExperience.setProfession(Profession.SORCERER);
+        raceProfessionExperience.setMinExperience(50_000);
+        raceProfessionExperience.setMaxExperience(150_000);
+        raceProfessionExperience.setPageSize(PAGE_SIZE);
+
+        nameContains = new FilterDTO();
+        nameContains.setName("77");
+        nameContains.setPageSize(PAGE_SIZE);
+
+        // Three or more characters: resolved by the trigram search index.
+        longNameContains = new FilterDTO();
+        longNameContains.setName("l4242");
+        longNameContains.setPageSize(PAGE_SIZE);
+
+        titleContains = new FilterDTO();
+        titleContains.setTitle("Title 4242");
+        titleContains.setPageSize(PAGE_SIZE);
+
+        int middlePage = players / 2 / PAGE_SIZE;
+        experienceDeepOffset = new FilterDTO();
+        experienceDeepOffset.setOrder(PlayerOrder.EXPERIENCE);
+        experienceDeepOffset.setPageNumber(middlePage);
+        experienceDeepOffset.setPageSize(PAGE_SIZE);
+
+        FilterDTO lastRowBeforeMiddle = new FilterDTO();
+        lastRowBeforeMiddle.setOrder(PlayerOrder.EXPERIENCE);
+        lastRowBeforeMiddle.setPageNumber(middlePage * PAGE_SIZE - 1);
+        lastRowBeforeMiddle.setPageSize(1);
+        List<Player> lastRow = playerService.findPage(lastRowBeforeMiddle);
+
+        experienceDeepCursor = new FilterDTO();
+        experienceDeepCursor.setOrder(PlayerOrder.EXPERIENCE);
+        experienceDeepCursor.setPageSize(PAGE_SIZE);
+        experienceDeepCursor.setCursor(lastRow.isEmpty() ? "" : PlayerCursor.after(lastRow.get(0), PlayerOrder.EXPERIENCE).encode());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Player> findPageByRaceProfessionExperience() {
+        return playerService.findPage(raceProfessionExperience);
+    }
+
+    @Benchmark
+    public List<Player> findPageByNameSubstring() {
+        return playerService.findPage(nameContains);
+    }
+
+    @Benchmark
+    public List<Player> findPageByLongNameSubstring() {
+        return playerService.findPage(longNameContains);
+    }
+
+    @Benchmark
+    public long countByTitleSubstring() {
+        return playerService.count(titleContains);
+    }
+
+    @Benchmark
+    public List<Player> findPageOrderedByExperienceDeepOffset() {
+        return playerService.findPage(experienceDeepOffset);
+    }
+
+    @Benchmark
+    public List<Player> findPageOrderedByExperienceDeepCursor() {
+        return playerService.findPage(experienceDeepCursor);
+    }
+
+    @Benchmark
+    public long countByRaceProfessionExperience() {
+        return playerService.count(raceProfessionExperience);
+    }
+
+    @Benchmark
+    public Player updateExperience() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        PlayerDTO playerDTO = new PlayerDTO();
+        playerDTO.setExperience(random.nextInt(10_000_001));
+        return playerService.update(playerDTO, 1L + random.nextInt(players));
+    }
+}
@@ -0,0 +1,73 @@
+package com.game.benchmark;
+
+import org.apache.catalina.startup.Tomcat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Cost of the request, repository and serialization timers on the cheapest requests there are: every
+// player is in the by-id cache and every page in the query cache, so a request is mostly Spring MVC,
+// Jackson and the loopback socket.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(8)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx2g"})
+public class RequestMetricsBenchmark {
+
+    private static final int PLAYERS = 1000;
+
+    @Param({"true", "false"})
+    public boolean timers;
+
+    private Tomcat tomcat;
+    private String baseUrl;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        System.setProperty("player.metrics.timers.enabled", String.valueOf(timers));
+        System.setProperty("player.async.enabled", "false");
+
+        AnnotationConfigWebApplicationContext context = BenchmarkData.createContext();
+        tomcat = BenchmarkData.startTomcat(context, 50);
+        BenchmarkData.seedPlayers(context, PLAYERS);
+        baseUrl = "http://localhost:" + tomcat.getConnector().getLocalPort();
+        for (int id = 1; id <= PLAYERS; id++) {
+            BenchmarkData.get(baseUrl + "/rest/players/" + id);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        tomcat.stop();
+        tomcat.destroy();
+    }
+
+    @Benchmark
+    public int getPlayer() throws IOException {
+        return BenchmarkData.get(baseUrl + "/rest/players/" + (1 + ThreadLocalRandom.current().nextInt(PLAYERS)));
+    }
+
+    @Benchmark
+    public int getPage() throws IOException {
+        return BenchmarkData.get(baseUrl + "/rest/players?pageSize=20&pageNumber=" + ThreadLocalRandom.current().nextInt(10));
+    }
+}
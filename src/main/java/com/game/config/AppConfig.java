@@ -1,14 +1,32 @@
 package com.game.config;
 
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.entity.PlayerIdGenerator;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
 import org.springframework.context.annotation.Profile;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.dao.annotation.PersistenceExceptionTranslationPostProcessor;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
-import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
 import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.stereotype.Controller;
 import org.springframework.orm.jpa.JpaVendorAdapter;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
@@ -18,19 +36,33 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
 import javax.persistence.EntityManagerFactory;
 import javax.sql.DataSource;
 import java.util.Properties;
-
-import static org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType.H2;
+import java.util.UUID;
 
 @Configuration
 @EnableTransactionManagement
-@ComponentScan("com.game")
+@ComponentScan(basePackages = "com.game", excludeFilters = {
+        @ComponentScan.Filter(Controller.class),
+        @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = WebConfig.class)})
 @EnableJpaRepositories(basePackages = "com.game.repository")
+@PropertySource(value = "classpath:application.properties", encoding = "UTF-8")
 public class AppConfig {
 
+    private final Environment env;
+
+    @Autowired
+    public AppConfig(Environment env) {
+        this.env = env;
+    }
+
     @Bean
-    public LocalContainerEntityManagerFactoryBean entityManagerFactory() {
+    public LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource, ObjectProvider<Flyway> flyway) {
+        // The schema has to be migrated before Hibernate starts using it.
+        if (env.getProperty("db.migration.enabled", Boolean.class, true)) {
+            flyway.ifAvailable(Flyway::migrate);
+        }
+
         LocalContainerEntityManagerFactoryBean em = new LocalContainerEntityManagerFactoryBean();
-        em.setDataSource(dataSource());
+        em.setDataSource(dataSource);
         em.setPackagesToScan("com.game.entity");
 
         JpaVendorAdapter vendorAdapter = new HibernateJpaVendorAdapter();
@@ -40,28 +72,60 @@ public class AppConfig {
         return em;
     }
 
+    @Profile("prod")
+    @Bean(destroyMethod = "close")
+    public DataSource dataSource(MeterRegistry meterRegistry) {
+        HikariConfig config = poolConfig("rpg-mysql", meterRegistry);
+        config.setDriverClassName(env.getRequiredProperty("db.driver"));
+        config.setJdbcUrl(env.getRequiredProperty("db.url"));
+        config.setUsername(env.getProperty("db.username"));
+        config.setPassword(env.getProperty("db.password"));
+        if (env.getProperty("db.pool.statement-cache.enabled", Boolean.class, true)) {
+            config.addDataSourceProperty("cachePrepStmts", "true");
+            config.addDataSourceProperty("useServerPrepStmts", "true");
+            config.addDataSourceProperty("prepStmtCacheSize", env.getProperty("db.pool.statement-cache.size", "250"));
+            config.addDataSourceProperty("prepStmtCacheSqlLimit", env.getProperty("db.pool.statement-cache.sql-limit", "2048"));
+        }
+        // Sends a JDBC insert batch as one multi-row INSERT instead of a statement per row.
+        config.addDataSourceProperty("rewriteBatchedStatements", "true");
+        // Queries with a fetch size (the export scroll) read through a server-side cursor in chunks
+        // instead of buffering the whole result set in the driver.
+        config.addDataSourceProperty("useCursorFetch", "true");
+        return new HikariDataSource(config);
+    }
+
     @Profile("prod")
     @Bean
-    public DataSource dataSource() {
-        DriverManagerDataSource dataSource = new DriverManagerDataSource();
-        dataSource.setDriverClassName("com.mysql.cj.jdbc.Driver");
-        dataSource.setUrl("jdbc:mysql://localhost:3306/rpg?serverTimezone=UTC&characterEncoding=UTF-8");
-        dataSource.setUsername("root");
-        dataSource.setPassword("root");
-        return dataSource;
+    public Flyway flyway(DataSource dataSource) {
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(env.getProperty("db.migration.baseline-on-migrate", Boolean.class, true))
+                .baselineVersion("1")
+                .load();
     }
 
     @Profile("dev")
-    @Bean(name = "dataSource")
-    public DataSource dataSourceForTests() {
-
-        return new EmbeddedDatabaseBuilder()
-                .generateUniqueName(true)
-                .setType(H2)
-                .setScriptEncoding("UTF-8")
-                .ignoreFailedDrops(true)
-                .addScript("test.sql")
-                .build();
+    @Bean(name = "dataSource", destroyMethod = "close")
+    public DataSource dataSourceForTests(MeterRegistry meterRegistry) {
+        HikariConfig config = poolConfig("rpg-h2", meterRegistry);
+        config.setJdbcUrl("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        HikariDataSource dataSource = new HikariDataSource(config);
+
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource("test.sql"));
+        populator.setSqlScriptEncoding("UTF-8");
+        populator.setIgnoreFailedDrops(true);
+        DatabasePopulatorUtils.execute(populator, dataSource);
+        return sqlProfilingEnabled() ? SqlProfiler.profiled("rpg-h2", dataSource) : dataSource;
+    }
+
+    // Shared by the REST message converter and the bulk import reader.
+    @Bean
+    public ObjectMapper objectMapper() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        objectMapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE);
+        objectMapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+        return objectMapper;
     }
 
     @Bean
@@ -77,10 +141,47 @@ public class AppConfig {
         return new PersistenceExceptionTranslationPostProcessor();
     }
 
+    private HikariConfig poolConfig(String poolName, MeterRegistry meterRegistry) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(poolName);
+        config.setMaximumPoolSize(env.getProperty("db.pool.maximum-size", Integer.class, 10));
+        config.setMinimumIdle(env.getProperty("db.pool.minimum-idle", Integer.class, 2));
+        config.setIdleTimeout(env.getProperty("db.pool.idle-timeout-ms", Long.class, 600_000L));
+        config.setMaxLifetime(env.getProperty("db.pool.max-lifetime-ms", Long.class, 1_800_000L));
+        config.setConnectionTimeout(env.getProperty("db.pool.connection-timeout-ms", Long.class, 30_000L));
+        config.setValidationTimeout(env.getProperty("db.pool.validation-timeout-ms", Long.class, 5_000L));
+        String testQuery = env.getProperty("db.pool.connection-test-query");
+        if (testQuery != null && !testQuery.isEmpty()) {
+            config.setConnectionTestQuery(testQuery);
+        }
+        config.setRegisterMbeans(env.getProperty("db.pool.register-mbeans", Boolean.class, false));
+        config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return config;
+    }
+
+    private boolean sqlProfilingEnabled() {
+        return env.getProperty("player.sql.profiling.enabled", Boolean.class, false);
+    }
+
     private Properties additionalProperties() {
         Properties properties = new Properties();
         properties.setProperty("hibernate.dialect", "org.hibernate.dialect.MySQL5Dialect");
 
+        properties.setProperty("hibernate.jdbc.batch_size", env.getProperty("db.jdbc.batch-size", "50"));
+        properties.setProperty(PlayerIdGenerator.INCREMENT_SIZE_SETTING, env.getProperty("db.id.allocation-size", "50"));
+
+        // Regions are configured in application.conf.
+        properties.setProperty("javax.persistence.sharedCache.mode", "ENABLE_SELECTIVE");
+        properties.setProperty("hibernate.cache.use_second_level_cache", env.getProperty("db.second-level-cache.enabled", "true"));
+        properties.setProperty("hibernate.cache.use_query_cache", env.getProperty("db.query-cache.enabled", "true"));
+        properties.setProperty("hibernate.cache.region.factory_class", "jcache");
+        properties.setProperty("hibernate.javax.cache.provider", CaffeineCachingProvider.class.getName());
+        properties.setProperty("hibernate.javax.cache.missing_cache_strategy", "create-warn");
+        properties.setProperty("hibernate.generate_statistics", env.getProperty("db.statistics.enabled", "true"));
+        if (sqlProfilingEnabled()) {
+            properties.put("hibernate.session_factory.interceptor", new SqlProfiler.EntityCounter());
+        }
+
         return properties;
     }
 }
\ No newline at end of file
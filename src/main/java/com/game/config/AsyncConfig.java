@@ -0,0 +1,44 @@
+package com.game.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class AsyncConfig {
+
+    private final Environment env;
+
+    @Autowired
+    public AsyncConfig(Environment env) {
+        this.env = env;
+    }
+
+    // Runs the blocking service and JDBC work of the async REST endpoints. Both the thread count and
+    // the queue are bounded; once they are full new tasks are rejected and the endpoints answer 503.
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService playerExecutor(MeterRegistry meterRegistry) {
+        int poolSize = env.getProperty("player.async.pool-size", Integer.class, 20);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(env.getProperty("player.async.queue-capacity", Integer.class, 1000)),
+                new CustomizableThreadFactory("player-"),
+                new ThreadPoolExecutor.AbortPolicy()) {
+            // The SQL of a task counts toward the request that submitted it (dev profile).
+            @Override
+            public void execute(Runnable command) {
+                super.execute(SqlProfile.propagate(command));
+            }
+        };
+        executor.allowCoreThreadTimeOut(true);
+        return ExecutorServiceMetrics.monitor(meterRegistry, executor, "playerExecutor");
+    }
+}
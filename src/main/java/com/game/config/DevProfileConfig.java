@@ -0,0 +1,13 @@
+package com.game.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.annotation.PropertySource;
+
+// Found by AppConfig's component scan after application.properties is registered,
+// so the dev values take precedence over it.
+@Configuration
+@Profile("dev")
+@PropertySource(value = "classpath:application-dev.properties", encoding = "UTF-8")
+public class DevProfileConfig {
+}
@@ -0,0 +1,57 @@
+package com.game.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import io.micrometer.core.instrument.binder.jpa.HibernateMetrics;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.cache.CacheManager;
+import javax.persistence.EntityManagerFactory;
+
+@Configuration
+public class MetricsConfig {
+
+    // Client-side percentiles published by the player.requests, player.repository and
+    // player.serialization timers.
+    public static final double[] PERCENTILES = {0.5, 0.95, 0.99};
+
+    @Bean(destroyMethod = "close")
+    public PrometheusMeterRegistry meterRegistry() {
+        return new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+    }
+
+    // Static, so it is registered before the repositories are created; the registry is only looked
+    // up on the first repository call.
+    @Bean
+    public static RepositoryMetricsPostProcessor repositoryMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry,
+                                                                                Environment env) {
+        return new RepositoryMetricsPostProcessor(meterRegistry, env.getProperty("player.metrics.timers.enabled", Boolean.class, true));
+    }
+
+    // hibernate.* session, query and cache totals plus cache.* hits, misses, puts and evictions
+    // of every second-level cache region.
+    @Bean
+    public HibernateMetrics hibernateMetrics(EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry) {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        HibernateMetrics metrics = new HibernateMetrics(sessionFactory, "entityManagerFactory", Tags.empty());
+        metrics.bindTo(meterRegistry);
+
+        RegionFactory regionFactory = sessionFactory.getCache().getRegionFactory();
+        if (regionFactory instanceof JCacheRegionFactory) {
+            CacheManager cacheManager = ((JCacheRegionFactory) regionFactory).getCacheManager();
+            for (String region : cacheManager.getCacheNames()) {
+                JCacheMetrics.monitor(meterRegistry, cacheManager.getCache(region), Tags.empty());
+            }
+        }
+        return metrics;
+    }
+}
@@ -0,0 +1,94 @@
+package com.game.config;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// JDBC work done on behalf of one HTTP request: statements executed, result set rows fetched and
+// entities Hibernate loaded, plus how often each SQL string ran, which is what gives an N+1 away.
+// The profile of the current request is bound to the thread that serves it and carried along to
+// the playerExecutor by propagate().
+public final class SqlProfile {
+
+    private static final ThreadLocal<SqlProfile> CURRENT = new ThreadLocal<>();
+
+    private final AtomicInteger statements = new AtomicInteger();
+    private final AtomicInteger rows = new AtomicInteger();
+    private final AtomicInteger entities = new AtomicInteger();
+    private final Map<String, AtomicInteger> executions = new ConcurrentHashMap<>();
+
+    public static SqlProfile current() {
+        return CURRENT.get();
+    }
+
+    // Returns the profile bound before, so that it can be restored.
+    public static SqlProfile bind(SqlProfile profile) {
+        SqlProfile previous = CURRENT.get();
+        if (profile == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(profile);
+        }
+        return previous;
+    }
+
+    // Runs the task with the profile of the submitting thread, if there is one.
+    public static Runnable propagate(Runnable task) {
+        SqlProfile profile = CURRENT.get();
+        if (profile == null) return task;
+        return () -> {
+            SqlProfile previous = bind(profile);
+            try {
+                task.run();
+            } finally {
+                bind(previous);
+            }
+        };
+    }
+
+    void statementExecuted(String sql) {
+        statements.incrementAndGet();
+        executions.computeIfAbsent(sql, key -> new AtomicInteger()).incrementAndGet();
+    }
+
+    void rowFetched() {
+        rows.incrementAndGet();
+    }
+
+    void entityLoaded() {
+        entities.incrementAndGet();
+    }
+
+    public int getStatements() {
+        return statements.get();
+    }
+
+    public int getRows() {
+        return rows.get();
+    }
+
+    public int getEntities() {
+        return entities.get();
+    }
+
+    public Set<String> getSql() {
+        return new HashSet<>(executions.keySet());
+    }
+
+    // The most executions of a single SQL string; a batch counts once.
+    public int getRepeats() {
+        int repeats = 0;
+        for (AtomicInteger count : executions.values()) {
+            repeats = Math.max(repeats, count.get());
+        }
+        return repeats;
+    }
+
+    @Override
+    public String toString() {
+        return "statements=" + getStatements() + " rows=" + getRows() + " entities=" + getEntities()
+                + " repeats=" + getRepeats();
+    }
+}
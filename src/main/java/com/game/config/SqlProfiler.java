@@ -0,0 +1,51 @@
+package com.game.config;
+
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.hibernate.EmptyInterceptor;
+import org.hibernate.type.Type;
+
+import javax.sql.DataSource;
+import java.io.Serializable;
+import java.sql.ResultSet;
+
+// Feeds the SqlProfile bound to the current thread (dev profile only, see player.sql.profiling.enabled):
+// a datasource-proxy around the pool counts the statements and the rows read from their result sets,
+// a Hibernate interceptor counts the entities loaded from either JDBC or the second-level cache.
+final class SqlProfiler {
+
+    private SqlProfiler() {
+    }
+
+    static DataSource profiled(String name, DataSource dataSource) {
+        return ProxyDataSourceBuilder.create(name, dataSource)
+                .afterQuery((execution, queries) -> {
+                    SqlProfile profile = SqlProfile.current();
+                    if (profile == null) return;
+                    for (QueryInfo query : queries) {
+                        profile.statementExecuted(query.getQuery());
+                    }
+                })
+                .proxyResultSet()
+                .afterMethod(context -> {
+                    SqlProfile profile = SqlProfile.current();
+                    if (profile != null && context.getTarget() instanceof ResultSet
+                            && "next".equals(context.getMethod().getName()) && Boolean.TRUE.equals(context.getResult())) {
+                        profile.rowFetched();
+                    }
+                })
+                .build();
+    }
+
+    static final class EntityCounter extends EmptyInterceptor {
+
+        @Override
+        public boolean onLoad(Object entity, Serializable id, Object[] state, String[] propertyNames, Type[] types) {
+            SqlProfile profile = SqlProfile.current();
+            if (profile != null) {
+                profile.entityLoaded();
+            }
+            return false;
+        }
+    }
+}
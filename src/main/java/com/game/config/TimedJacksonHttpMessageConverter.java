@@ -0,0 +1,45 @@
+package com.game.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+// Records the time spent writing each JSON response body in the player.serialization timer, tagged
+// with the class of the written value. The body is streamed, so the time includes the socket writes.
+public class TimedJacksonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<Class<?>, Timer> timers = new ConcurrentHashMap<>();
+
+    public TimedJacksonHttpMessageConverter(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        super(objectMapper);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+        long start = System.nanoTime();
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            timer(object.getClass()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(Class<?> valueClass) {
+        Timer timer = timers.get(valueClass);
+        if (timer != null) return timer;
+        return timers.computeIfAbsent(valueClass, key -> Timer.builder("player.serialization")
+                .tag("type", key.getSimpleName())
+                .publishPercentiles(MetricsConfig.PERCENTILES)
+                .register(meterRegistry));
+    }
+}
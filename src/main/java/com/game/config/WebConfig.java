@@ -1,14 +1,20 @@
 package com.game.config;
 
-import com.fasterxml.jackson.annotation.JsonAutoDetect;
-import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.controller.RequestMetricsInterceptor;
+import com.game.controller.SqlBudgetInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.web.servlet.ViewResolver;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.ViewControllerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -19,9 +25,19 @@ import java.util.List;
 
 @Configuration
 @EnableWebMvc
-@ComponentScan("com.game")
+@ComponentScan("com.game.controller")
 public class WebConfig implements WebMvcConfigurer {
 
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Environment env;
+
+    @Autowired
+    public WebConfig(ObjectMapper objectMapper, MeterRegistry meterRegistry, Environment env) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.env = env;
+    }
 
     @Bean
     public ViewResolver internalResourceViewResolver() {
@@ -42,11 +58,30 @@ public class WebConfig implements WebMvcConfigurer {
         registry.addResourceHandler("/resources/**").addResourceLocations("/resources/");
     }
 
+    // A request whose result is not ready in time is answered with 503.
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(env.getProperty("player.async.timeout-ms", Long.class, 30_000L));
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (timersEnabled()) {
+            registry.addInterceptor(new RequestMetricsInterceptor(meterRegistry)).addPathPatterns("/rest/**");
+        }
+        if (env.getProperty("player.sql.profiling.enabled", Boolean.class, false)) {
+            registry.addInterceptor(new SqlBudgetInterceptor(env.getProperty("player.sql.budgets")))
+                    .addPathPatterns("/rest/**");
+        }
+    }
+
     @Override
     public void configureMessageConverters(List<HttpMessageConverter<?>> converters) {
-        MappingJackson2HttpMessageConverter converter = new MappingJackson2HttpMessageConverter();
-        converter.getObjectMapper().setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE);
-        converter.getObjectMapper().setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
-        converters.add(converter);
+        converters.add(timersEnabled() ? new TimedJacksonHttpMessageConverter(objectMapper, meterRegistry)
+                : new MappingJackson2HttpMessageConverter(objectMapper));
+    }
+
+    private boolean timersEnabled() {
+        return env.getProperty("player.metrics.timers.enabled", Boolean.class, true);
     }
 }
\ No newline at end of file
@@ -0,0 +1,64 @@
+package com.game.controller;
+
+import com.game.dto.RankDTO;
+import com.game.entity.Player;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+import com.game.exception.InvalidIdException;
+import com.game.exception.NoSuchPlayerException;
+import com.game.exception.ValidationException;
+import com.game.service.Leaderboard;
+import com.game.service.PlayerService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RestController
+public class LeaderboardController {
+
+    private final Leaderboard leaderboard;
+    private final PlayerService playerService;
+    private final int maxLimit;
+
+    @Autowired
+    public LeaderboardController(Leaderboard leaderboard, PlayerService playerService,
+                                 @Value("${player.leaderboard.max-limit:1000}") int maxLimit) {
+        this.leaderboard = leaderboard;
+        this.playerService = playerService;
+        this.maxLimit = maxLimit;
+    }
+
+    // Highest experience first, ties by id.
+    @GetMapping("/rest/leaderboard")
+    public List<Player> top(@RequestParam(value = "race", required = false) Race race,
+                            @RequestParam(value = "profession", required = false) Profession profession,
+                            @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        if (limit < 1 || limit > maxLimit) {
+            throw new ValidationException();
+        }
+        long[] top = leaderboard.top(race, profession, limit);
+        List<Long> ids = new ArrayList<>(top.length);
+        for (long id : top) {
+            ids.add(id);
+        }
+        return playerService.findAllById(ids);
+    }
+
+    @GetMapping("/rest/leaderboard/{id}")
+    public RankDTO rank(@PathVariable("id") Long id) {
+        if (id <= 0) {
+            throw new InvalidIdException();
+        }
+        RankDTO rank = leaderboard.rank(id);
+        if (rank == null) {
+            throw new NoSuchPlayerException();
+        }
+        return rank;
+    }
+}
@@ -0,0 +1,28 @@
+package com.game.controller;
+
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import io.prometheus.client.exporter.common.TextFormat;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+@RestController
+public class MetricsController {
+
+    private final PrometheusMeterRegistry meterRegistry;
+
+    @Autowired
+    public MetricsController(PrometheusMeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @GetMapping("/metrics")
+    public void scrape(HttpServletResponse response) throws IOException {
+        response.setContentType(TextFormat.CONTENT_TYPE_004);
+        response.setCharacterEncoding("UTF-8");
+        meterRegistry.scrape(response.getWriter());
+    }
+}
@@ -1,89 +1,198 @@
 package com.game.controller;
 
+import com.game.dto.BulkUpdateDTO;
+import com.game.dto.BulkUpdateResultDTO;
+import com.game.dto.ExperienceGrantDTO;
+import com.game.dto.FilterDTO;
+import com.game.dto.ImportResultDTO;
 import com.game.dto.PlayerDTO;
 import com.game.entity.Player;
-import com.game.entity.Profession;
-import com.game.entity.Race;
+import com.game.exception.ServiceUnavailableException;
+import com.game.exception.ValidationException;
+import com.game.service.ExperienceService;
+import com.game.service.PlayerExportService;
+import com.game.service.PlayerImportService;
 import com.game.service.PlayerService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.NonNull;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping()
 public class PlayerController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final PlayerService playerService;
+    private final PlayerImportService playerImportService;
+    private final PlayerExportService playerExportService;
+    private final ExperienceService experienceService;
+    private final ExecutorService playerExecutor;
+    private final boolean asyncEnabled;
 
     @Autowired
-    public PlayerController(PlayerService playerService) {
+    public PlayerController(PlayerService playerService, PlayerImportService playerImportService,
+                            PlayerExportService playerExportService, ExperienceService experienceService,
+                            ExecutorService playerExecutor,
+                            @Value("${player.async.enabled:true}") boolean asyncEnabled) {
         this.playerService = playerService;
+        this.playerImportService = playerImportService;
+        this.playerExportService = playerExportService;
+        this.experienceService = experienceService;
+        this.playerExecutor = playerExecutor;
+        this.asyncEnabled = asyncEnabled;
     }
 
     @GetMapping("rest/players")
-    public List<Player> getPlayers(@RequestParam(value = "name", required = false) String name,
-                                   @RequestParam(value = "title", required = false) String title,
-                                   @RequestParam(value = "race", required = false) Race race,
-                                   @RequestParam(value = "profession", required = false) Profession profession,
-                                   @RequestParam(value = "after", required = false) Long after,
-                                   @RequestParam(value = "before", required = false) Long before,
-                                   @RequestParam(value = "banned", required = false) Boolean banned,
-                                   @RequestParam(value = "minExperience", required = false) Integer minExperience,
-                                   @RequestParam(value = "maxExperience", required = false) Integer maxExperience,
-                                   @RequestParam(value = "minLevel", required = false) Integer minLevel,
-                                   @RequestParam(value = "maxLevel", required = false) Integer maxLevel,
-                                   @RequestParam(value = "order", required = false) PlayerOrder order,
-                                   @RequestParam(value = "pageNumber", required = false) Integer pageNumber,
-                                   @RequestParam(value = "pageSize", required = false) Integer pageSize) {
-        List<Player> players = playerService.findAll(name, title, race, profession, after, before, banned, minExperience, maxExperience, minLevel, maxLevel);
-        List<Player> sortedPlayers = playerService.sortPlayers(players, order);
-        return playerService.getPage(sortedPlayers, pageNumber, pageSize);
+    public CompletableFuture<ResponseEntity<List<Player>>> getPlayers(FilterDTO filter) {
+        return async(() -> {
+            List<Player> players = playerService.findPage(filter);
+            HttpHeaders headers = new HttpHeaders();
+            String nextCursor = playerService.nextCursor(filter, players);
+            if (nextCursor != null) {
+                headers.set(NEXT_CURSOR_HEADER, nextCursor);
+            }
+            return new ResponseEntity<>(players, headers, HttpStatus.OK);
+        });
     }
 
     @GetMapping("/rest/players/count")
-    public Integer countPlayers(@RequestParam(value = "name", required = false) String name,
-                                @RequestParam(value = "title", required = false) String title,
-                                @RequestParam(value = "race", required = false) Race race,
-                                @RequestParam(value = "profession", required = false) Profession profession,
-                                @RequestParam(value = "after", required = false) Long after,
-                                @RequestParam(value = "before", required = false) Long before,
-                                @RequestParam(value = "banned", required = false) Boolean banned,
-                                @RequestParam(value = "minExperience", required = false) Integer minExperience,
-                                @RequestParam(value = "maxExperience", required = false) Integer maxExperience,
-                                @RequestParam(value = "minLevel", required = false) Integer minLevel,
-                                @RequestParam(value = "maxLevel", required = false) Integer maxLevel) {
-        return playerService.findAll(name, title, race, profession, after, before, banned, minExperience, maxExperience, minLevel, maxLevel).size();
+    public CompletableFuture<Integer> countPlayers(FilterDTO filter) {
+        return async(() -> Math.toIntExact(playerService.count(filter)));
+    }
+
+    // Same filters and order as GET /rest/players, without paging. Compressed when the client accepts gzip.
+    @GetMapping("/rest/players/export")
+    public void exportPlayers(FilterDTO filter, @RequestParam(value = "format", defaultValue = "NDJSON") ExportFormat format,
+                              @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                              HttpServletResponse response) throws IOException {
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"players." + format.getExtension() + "\"");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        OutputStream out = response.getOutputStream();
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            out = new GZIPOutputStream(out, 8192);
+        }
+        playerExportService.export(filter, format, out);
     }
 
     @GetMapping("/rest/players/{id}")
-    public ResponseEntity<Player> getPlayer(@PathVariable("id") Long id) {
-        if (id == 0) return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
-        Player player = playerService.findOne(id);
-        if (player == null) return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-        return new ResponseEntity<>(player, HttpStatus.OK);
+    public CompletableFuture<ResponseEntity<Player>> getPlayer(@PathVariable("id") Long id) {
+        if (id == 0) return CompletableFuture.completedFuture(new ResponseEntity<>(HttpStatus.BAD_REQUEST));
+        return async(() -> {
+            Player player = playerService.findOne(id);
+            if (player == null) return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            return ResponseEntity.ok().eTag(eTag(player)).body(player);
+        });
     }
 
     @PostMapping("rest/players")
-    public ResponseEntity<Player> createPlayer(@RequestBody Player player) {
+    public CompletableFuture<ResponseEntity<Player>> createPlayer(@RequestBody Player player) {
         if (!playerService.isPlayerValid(player)) {
-            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+            return CompletableFuture.completedFuture(new ResponseEntity<>(HttpStatus.BAD_REQUEST));
         }
-        playerService.save(player);
-        return new ResponseEntity<>(player, HttpStatus.OK);
+        return async(() -> {
+            playerService.save(player);
+            return new ResponseEntity<>(player, HttpStatus.OK);
+        });
+    }
+
+    @PostMapping(value = "rest/players/import", consumes = {MediaType.APPLICATION_JSON_VALUE, PlayerImportService.NDJSON_VALUE})
+    public ImportResultDTO importPlayers(InputStream body) throws IOException {
+        return playerImportService.importPlayers(body);
+    }
+
+    @PostMapping("rest/players/bulk")
+    public CompletableFuture<BulkUpdateResultDTO> bulkUpdatePlayers(FilterDTO filter, @RequestBody BulkUpdateDTO bulkUpdate) {
+        return async(() -> new BulkUpdateResultDTO(playerService.bulkUpdate(filter, bulkUpdate.getIds(), bulkUpdate.getPatch())));
+    }
+
+    @PostMapping("rest/players/ban")
+    public CompletableFuture<BulkUpdateResultDTO> banPlayers(FilterDTO filter, @RequestBody(required = false) BulkUpdateDTO bulkUpdate) {
+        return async(() -> new BulkUpdateResultDTO(playerService.setBanned(filter, bulkUpdate == null ? null : bulkUpdate.getIds(), true)));
+    }
+
+    @PostMapping("rest/players/unban")
+    public CompletableFuture<BulkUpdateResultDTO> unbanPlayers(FilterDTO filter, @RequestBody(required = false) BulkUpdateDTO bulkUpdate) {
+        return async(() -> new BulkUpdateResultDTO(playerService.setBanned(filter, bulkUpdate == null ? null : bulkUpdate.getIds(), false)));
     }
 
+    // 202 when the grant was buffered, 200 with the updated player when it was written (sync=true
+    // or player.xp.mode=SYNC).
+    @PostMapping("rest/players/{id}/experience")
+    public CompletableFuture<ResponseEntity<Player>> grantExperience(@PathVariable("id") Long id,
+                                                                     @RequestBody ExperienceGrantDTO grant,
+                                                                     @RequestParam(value = "sync", defaultValue = "false") boolean sync) {
+        return async(() -> {
+            Player player = experienceService.grant(id, grant.getAmount(), sync);
+            if (player == null) return new ResponseEntity<>(HttpStatus.ACCEPTED);
+            return new ResponseEntity<>(player, HttpStatus.OK);
+        });
+    }
+
+    // The ETag of a player is its version. With If-Match the update applies only to that version and
+    // answers 409 otherwise; the client GETs the player again and retries with the new ETag.
     @PostMapping("rest/players/{id}")
-    public Player updatePlayer(@RequestBody PlayerDTO playerDTO, @PathVariable(value = "id") Long id) {
-        playerService.validateId(id);
-        return playerService.update(playerDTO, id);
+    public CompletableFuture<ResponseEntity<Player>> updatePlayer(@RequestBody PlayerDTO playerDTO, @PathVariable(value = "id") Long id,
+                                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = expectedVersion(ifMatch);
+        return async(() -> {
+            Player player = playerService.update(playerDTO, id, expectedVersion);
+            return ResponseEntity.ok().eTag(eTag(player)).body(player);
+        });
     }
 
     @DeleteMapping("/rest/players/{id}")
-    public ResponseEntity<Player> deletePlayer(@PathVariable("id") Long id) {
-        return playerService.delete(id);
+    public CompletableFuture<ResponseEntity<Player>> deletePlayer(@PathVariable("id") Long id) {
+        return async(() -> playerService.delete(id));
+    }
+
+    private static String eTag(Player player) {
+        return "\"" + player.getVersion() + "\"";
+    }
+
+    // null for no If-Match or "*" (any version).
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) return null;
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"') {
+            throw new ValidationException();
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new ValidationException();
+        }
+    }
+
+    // Frees the container thread while the service blocks on JDBC. With player.async.enabled=false the
+    // work runs inline on the container thread, as before.
+    private <T> CompletableFuture<T> async(Supplier<T> task) {
+        if (!asyncEnabled) {
+            return CompletableFuture.completedFuture(task.get());
+        }
+        try {
+            return CompletableFuture.supplyAsync(task, playerExecutor);
+        } catch (RejectedExecutionException e) {
+            throw new ServiceUnavailableException();
+        }
     }
 }
@@ -0,0 +1,68 @@
+package com.game.controller;
+
+import com.game.config.MetricsConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+// Records every REST request in the player.requests timer, tagged with the HTTP method, the mapping
+// pattern, the status and the simple name of the exception that ended it ("None" on success).
+// Async endpoints are timed from the first dispatch until the async dispatch completes.
+public class RequestMetricsInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String START = RequestMetricsInterceptor.class.getName() + ".START";
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<List<String>, Timer> timers = new ConcurrentHashMap<>();
+
+    public RequestMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getAttribute(START) == null) {
+            request.setAttribute(START, System.nanoTime());
+        }
+        return true;
+    }
+
+    // Exceptions mapped by @ResponseStatus are already resolved here and only left in the
+    // EXCEPTION_ATTRIBUTE of the request.
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object start = request.getAttribute(START);
+        if (start == null) return;
+        long elapsed = System.nanoTime() - (Long) start;
+
+        Object error = ex != null ? ex : request.getAttribute(DispatcherServlet.EXCEPTION_ATTRIBUTE);
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        List<String> tags = Arrays.asList(request.getMethod(), pattern == null ? "UNKNOWN" : pattern.toString(),
+                String.valueOf(response.getStatus()), error == null ? "None" : error.getClass().getSimpleName());
+        Timer timer = timers.get(tags);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(tags, this::timer);
+        }
+        timer.record(elapsed, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timer(List<String> tags) {
+        return Timer.builder("player.requests")
+                .tag("method", tags.get(0))
+                .tag("uri", tags.get(1))
+                .tag("status", tags.get(2))
+                .tag("exception", tags.get(3))
+                .publishPercentiles(MetricsConfig.PERCENTILES)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,131 @@
+package com.game.controller;
+
+import com.game.config.SqlProfile;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.ArrayList;
+import java.util.List;
+
+// Binds a SqlProfile to every REST request (dev profile, player.sql.profiling.enabled) and checks it
+// against the budgets of player.sql.budgets once the request completes. A request over budget is
+// logged and marked with the VIOLATION attribute, which the MockMvc tests fail on.
+//
+// A budget is "<method> <mapping pattern> <limit>=<max> ...", budgets are separated by ";" and "*"
+// matches any method or pattern. The limits are statements, rows (result set rows read), entities
+// (entities loaded) and repeats (executions of the same SQL, the N+1 signature).
+public class SqlBudgetInterceptor implements AsyncHandlerInterceptor {
+
+    public static final String PROFILE = SqlBudgetInterceptor.class.getName() + ".PROFILE";
+    public static final String VIOLATION = SqlBudgetInterceptor.class.getName() + ".VIOLATION";
+
+    private static final Log log = LogFactory.getLog(SqlBudgetInterceptor.class);
+
+    private final List<Budget> budgets;
+
+    public SqlBudgetInterceptor(String budgets) {
+        this.budgets = parse(budgets);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        SqlProfile profile = (SqlProfile) request.getAttribute(PROFILE);
+        if (profile == null) {
+            profile = new SqlProfile();
+            request.setAttribute(PROFILE, profile);
+        }
+        SqlProfile.bind(profile);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        SqlProfile.bind(null);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        SqlProfile.bind(null);
+        SqlProfile profile = (SqlProfile) request.getAttribute(PROFILE);
+        if (profile == null) return;
+
+        String method = request.getMethod();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        for (Budget budget : budgets) {
+            if (budget.matches(method, pattern) && budget.isExceededBy(profile)) {
+                String violation = method + " " + pattern + " is over its SQL budget ("
+                        + String.join(" ", budget.limits) + "): " + profile;
+                log.warn(violation);
+                request.setAttribute(VIOLATION, violation);
+                return;
+            }
+        }
+    }
+
+    static List<Budget> parse(String spec) {
+        List<Budget> budgets = new ArrayList<>();
+        if (spec == null) return budgets;
+        for (String entry : spec.split(";")) {
+            String[] tokens = entry.trim().split("\\s+");
+            if (tokens.length < 3) {
+                if (tokens[0].isEmpty()) continue;
+                throw new IllegalArgumentException("SQL budget needs a method, a pattern and limits: " + entry);
+            }
+            Budget budget = new Budget(tokens[0], tokens[1]);
+            for (int i = 2; i < tokens.length; i++) {
+                budget.limit(tokens[i]);
+            }
+            budgets.add(budget);
+        }
+        return budgets;
+    }
+
+    static final class Budget {
+
+        private final String method;
+        private final String pattern;
+        private final List<String> limits = new ArrayList<>();
+        private int statements = Integer.MAX_VALUE;
+        private int rows = Integer.MAX_VALUE;
+        private int entities = Integer.MAX_VALUE;
+        private int repeats = Integer.MAX_VALUE;
+
+        Budget(String method, String pattern) {
+            this.method = method;
+            this.pattern = pattern;
+        }
+
+        void limit(String limit) {
+            int separator = limit.indexOf('=');
+            String name = separator < 0 ? limit : limit.substring(0, separator);
+            int max;
+            try {
+                max = Integer.parseInt(limit.substring(separator + 1));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Bad SQL budget limit: " + limit, e);
+            }
+            switch (name) {
+                case "statements": statements = max; break;
+                case "rows": rows = max; break;
+                case "entities": entities = max; break;
+                case "repeats": repeats = max; break;
+                default: throw new IllegalArgumentException("Unknown SQL budget limit: " + limit);
+            }
+            limits.add(limit);
+        }
+
+        boolean matches(String requestMethod, Object requestPattern) {
+            return ("*".equals(method) || method.equalsIgnoreCase(requestMethod))
+                    && ("*".equals(pattern) || pattern.equals(requestPattern));
+        }
+
+        boolean isExceededBy(SqlProfile profile) {
+            return profile.getStatements() > statements || profile.getRows() > rows
+                    || profile.getEntities() > entities || profile.getRepeats() > repeats;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.game.controller;
+
+import com.game.dto.StatsDTO;
+import com.game.service.PlayerStatistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+public class StatsController {
+
+    private final PlayerStatistics playerStatistics;
+
+    @Autowired
+    public StatsController(PlayerStatistics playerStatistics) {
+        this.playerStatistics = playerStatistics;
+    }
+
+    @GetMapping("/rest/players/stats")
+    public StatsDTO stats() {
+        return playerStatistics.stats();
+    }
+
+    @PostMapping("/rest/players/stats/recompute")
+    public StatsDTO recompute() {
+        return playerStatistics.recompute();
+    }
+}
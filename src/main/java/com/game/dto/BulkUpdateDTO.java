@@ -0,0 +1,27 @@
+package com.game.dto;
+
+import java.util.List;
+
+public class BulkUpdateDTO {
+    private List<Long> ids;
+    private PlayerDTO patch;
+
+    public BulkUpdateDTO() {
+    }
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public PlayerDTO getPatch() {
+        return patch;
+    }
+
+    public void setPatch(PlayerDTO patch) {
+        this.patch = patch;
+    }
+}
@@ -0,0 +1,16 @@
+package com.game.dto;
+
+public class ExperienceGrantDTO {
+    private Integer amount;
+
+    public ExperienceGrantDTO() {
+    }
+
+    public Integer getAmount() {
+        return amount;
+    }
+
+    public void setAmount(Integer amount) {
+        this.amount = amount;
+    }
+}
@@ -19,10 +19,17 @@ public class FilterDTO {
     private PlayerOrder order;
     private Integer pageNumber;
     private Integer pageSize;
+    private String cursor;
 
     public FilterDTO() {
     }
 
+    // True when at least one filter parameter is set; order and paging parameters do not count.
+    public boolean hasCriteria() {
+        return name != null || title != null || race != null || profession != null || after != null || before != null
+                || banned != null || minExperience != null || maxExperience != null || minLevel != null || maxLevel != null;
+    }
+
     public String getName() {
         return name;
     }
@@ -134,4 +141,12 @@ public class FilterDTO {
     public void setPageSize(Integer pageSize) {
         this.pageSize = pageSize;
     }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,58 @@
+package com.game.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ImportResultDTO {
+    private int imported;
+    private int rejected;
+    private List<RecordError> errors = new ArrayList<>();
+
+    public ImportResultDTO() {
+    }
+
+    public int getImported() {
+        return imported;
+    }
+
+    public void addImported(int count) {
+        imported += count;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public List<RecordError> getErrors() {
+        return errors;
+    }
+
+    // Only the first maxReported errors are listed, the others are just counted.
+    public void reject(int index, String message, int maxReported) {
+        rejected++;
+        if (errors.size() < maxReported) {
+            errors.add(new RecordError(index, message));
+        }
+    }
+
+    public static class RecordError {
+        private int index;
+        private String message;
+
+        public RecordError() {
+        }
+
+        public RecordError(int index, String message) {
+            this.index = index;
+            this.message = message;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.game.dto;
+
+import com.game.controller.PlayerOrder;
+import com.game.entity.Player;
+import com.game.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Opaque continuation token for keyset paging: the sort key and id of the last row a client has seen.
+// A NULL key is encoded without the key part: "LEVEL:41" is a NULL level, "NAME:41:" an empty name.
+public final class PlayerCursor {
+
+    private static final String SEPARATOR = ":";
+
+    private final PlayerOrder order;
+    private final long id;
+    private final String name;
+    private final Integer experience;
+    private final Integer level;
+    private final java.sql.Date birthday;
+
+    private PlayerCursor(PlayerOrder order, long id, String name, Integer experience, Integer level, java.sql.Date birthday) {
+        this.order = order;
+        this.id = id;
+        this.name = name;
+        this.experience = experience;
+        this.level = level;
+        this.birthday = birthday;
+    }
+
+    public static PlayerCursor after(Player player, PlayerOrder order) {
+        long id = player.getId();
+        switch (order) {
+            case NAME:
+                return new PlayerCursor(order, id, player.getName(), null, null, null);
+            case EXPERIENCE:
+                return new PlayerCursor(order, id, null, player.getExperience(), null, null);
+            case LEVEL:
+                return new PlayerCursor(order, id, null, null, player.getLevel(), null);
+            case BIRTHDAY:
+                java.sql.Date birthday = player.getBirthday() == null ? null : new java.sql.Date(player.getBirthday().getTime());
+                return new PlayerCursor(order, id, null, null, null, birthday);
+            default:
+                return new PlayerCursor(order, id, null, null, null, null);
+        }
+    }
+
+    public static PlayerCursor decode(String token) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = decoded.split(SEPARATOR, 3);
+            if (parts.length < 2) {
+                throw new ValidationException();
+            }
+            PlayerOrder order = PlayerOrder.valueOf(parts[0]);
+            long id = Long.parseLong(parts[1]);
+            String key = parts.length == 3 ? parts[2] : null;
+            switch (order) {
+                case NAME:
+                    return new PlayerCursor(order, id, key, null, null, null);
+                case EXPERIENCE:
+                    return new PlayerCursor(order, id, null, key == null ? null : Integer.valueOf(key), null, null);
+                case LEVEL:
+                    return new PlayerCursor(order, id, null, null, key == null ? null : Integer.valueOf(key), null);
+                case BIRTHDAY:
+                    return new PlayerCursor(order, id, null, null, null, key == null ? null : new java.sql.Date(Long.parseLong(key)));
+                default:
+                    return new PlayerCursor(order, id, null, null, null, null);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException();
+        }
+    }
+
+    public String encode() {
+        String key = keyAsString();
+        String raw = order.name() + SEPARATOR + id + (key == null ? "" : SEPARATOR + key);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public PlayerOrder getOrder() {
+        return order;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Integer getExperience() {
+        return experience;
+    }
+
+    public Integer getLevel() {
+        return level;
+    }
+
+    public java.sql.Date getBirthday() {
+        return birthday;
+    }
+
+    private String keyAsString() {
+        switch (order) {
+            case NAME:
+                return name;
+            case EXPERIENCE:
+                return experience == null ? null : String.valueOf(experience);
+            case LEVEL:
+                return level == null ? null : String.valueOf(level);
+            case BIRTHDAY:
+                return birthday == null ? null : String.valueOf(birthday.getTime());
+            default:
+                return "";
+        }
+    }
+}
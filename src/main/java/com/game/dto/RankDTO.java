@@ -0,0 +1,61 @@
+package com.game.dto;
+
+public class RankDTO {
+    private long id;
+    private int experience;
+    private int rank;
+    private int total;
+    private Integer raceRank;
+    private Integer professionRank;
+
+    public RankDTO() {
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public int getExperience() {
+        return experience;
+    }
+
+    public void setExperience(int experience) {
+        this.experience = experience;
+    }
+
+    public int getRank() {
+        return rank;
+    }
+
+    public void setRank(int rank) {
+        this.rank = rank;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public Integer getRaceRank() {
+        return raceRank;
+    }
+
+    public void setRaceRank(Integer raceRank) {
+        this.raceRank = raceRank;
+    }
+
+    public Integer getProfessionRank() {
+        return professionRank;
+    }
+
+    public void setProfessionRank(Integer professionRank) {
+        this.professionRank = professionRank;
+    }
+}
@@ -0,0 +1,76 @@
+package com.game.dto;
+
+import com.game.entity.Profession;
+import com.game.entity.Race;
+
+import java.util.Map;
+
+public class StatsDTO {
+    private int total;
+    private int banned;
+    private double bannedRatio;
+    private Map<Race, Integer> byRace;
+    private Map<Profession, Integer> byProfession;
+    private Map<Race, Map<Profession, Integer>> byRaceProfession;
+    // levels[n] is the number of players at level n, up to the highest level anyone has
+    private int[] levels;
+
+    public StatsDTO() {
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public int getBanned() {
+        return banned;
+    }
+
+    public void setBanned(int banned) {
+        this.banned = banned;
+    }
+
+    public double getBannedRatio() {
+        return bannedRatio;
+    }
+
+    public void setBannedRatio(double bannedRatio) {
+        this.bannedRatio = bannedRatio;
+    }
+
+    public Map<Race, Integer> getByRace() {
+        return byRace;
+    }
+
+    public void setByRace(Map<Race, Integer> byRace) {
+        this.byRace = byRace;
+    }
+
+    public Map<Profession, Integer> getByProfession() {
+        return byProfession;
+    }
+
+    public void setByProfession(Map<Profession, Integer> byProfession) {
+        this.byProfession = byProfession;
+    }
+
+    public Map<Race, Map<Profession, Integer>> getByRaceProfession() {
+        return byRaceProfession;
+    }
+
+    public void setByRaceProfession(Map<Race, Map<Profession, Integer>> byRaceProfession) {
+        this.byRaceProfession = byRaceProfession;
+    }
+
+    public int[] getLevels() {
+        return levels;
+    }
+
+    public void setLevels(int[] levels) {
+        this.levels = levels;
+    }
+}
@@ -0,0 +1,81 @@
+package com.game.entity;
+
+// Level L starts at 50 * L * (L + 1) experience. The thresholds for the whole valid experience range
+// are precomputed once, so a lookup is a binary search over 447 ints with no floating point or boxing.
+public final class LevelCurve {
+
+    public static final int MAX_EXPERIENCE = 10_000_000;
+    public static final int MAX_LEVEL;
+
+    // THRESHOLDS[level] is the experience at which the level starts; the last entry is the start of
+    // the level after MAX_LEVEL, needed for untilNextLevel at the top.
+    private static final int[] THRESHOLDS;
+
+    static {
+        int maxLevel = 0;
+        while (threshold(maxLevel + 1) <= MAX_EXPERIENCE) {
+            maxLevel++;
+        }
+        MAX_LEVEL = maxLevel;
+        THRESHOLDS = new int[MAX_LEVEL + 2];
+        for (int level = 0; level < THRESHOLDS.length; level++) {
+            THRESHOLDS[level] = threshold(level);
+        }
+    }
+
+    private LevelCurve() {
+    }
+
+    public static boolean isValidExperience(int experience) {
+        return experience >= 0 && experience <= MAX_EXPERIENCE;
+    }
+
+    // Binary search for the last threshold not above the experience. The step is a conditional move
+    // rather than a branch: with random experience values a branching search mispredicts on every
+    // step and is several times slower than the square root it replaces.
+    public static int level(int experience) {
+        checkExperience(experience);
+        int base = 0;
+        int length = MAX_LEVEL + 1;
+        while (length > 1) {
+            int half = length >>> 1;
+            base = THRESHOLDS[base + half] <= experience ? base + half : base;
+            length -= half;
+        }
+        return base;
+    }
+
+    public static int untilNextLevel(int experience) {
+        return THRESHOLDS[level(experience) + 1] - experience;
+    }
+
+    // Defined up to MAX_LEVEL + 1, the level no valid experience reaches.
+    public static int experienceForLevel(int level) {
+        if (level < 0 || level > MAX_LEVEL + 1) {
+            throw new IllegalArgumentException("Level out of range: " + level);
+        }
+        return THRESHOLDS[level];
+    }
+
+    // Closed form of level() as an SQL expression over an experience expression, for updates that
+    // run entirely in the database. A double square root is exact enough over the valid range:
+    // LevelCurveTest checks it against the table for every experience value.
+    public static String levelSql(String experience) {
+        return "FLOOR((SQRT(2500 + 200 * " + experience + ") - 50) / 100)";
+    }
+
+    public static String untilNextLevelSql(String experience) {
+        String level = levelSql(experience);
+        return "50 * (" + level + " + 1) * (" + level + " + 2) - " + experience;
+    }
+
+    private static void checkExperience(int experience) {
+        if (!isValidExperience(experience)) {
+            throw new IllegalArgumentException("Experience out of range: " + experience);
+        }
+    }
+
+    private static int threshold(int level) {
+        return 50 * level * (level + 1);
+    }
+}
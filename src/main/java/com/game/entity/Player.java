@@ -1,15 +1,34 @@
 package com.game.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
 import javax.persistence.*;
 import java.util.Date;
 
 @Entity
 @Table(name = "player")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Player.CACHE_REGION)
+@DynamicUpdate
 public class Player {
 
+    public static final String CACHE_REGION = "player";
+
+    // IDENTITY would make Hibernate insert rows one by one; a pooled table sequence lets it batch them.
     @Id
     @Column(name = "id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "player_seq")
+    @GenericGenerator(name = "player_seq", strategy = "com.game.entity.PlayerIdGenerator", parameters = {
+            @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "player_seq"),
+            @Parameter(name = SequenceStyleGenerator.FORCE_TBL_PARAM, value = "true"),
+            @Parameter(name = SequenceStyleGenerator.OPT_PARAM, value = "pooled-lo"),
+            @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "50")})
     private Long id;
 
     @Column(name = "name")
@@ -33,6 +52,13 @@ public class Player {
     private Date birthday;
     @Column(name = "banned")
     private Boolean banned;
+    // Checked and incremented by every update, which with @DynamicUpdate writes only the changed columns:
+    // "update player set banned=?, version=? where id=? and version=?". Primitive, so that Spring Data
+    // still tells new players apart by their null id.
+    @Version
+    @Column(name = "version")
+    @JsonIgnore
+    private long version;
 
     public Player() {
     }
@@ -44,10 +70,9 @@ public class Player {
         this.profession = profession;
         this.experience = experience;
         this.birthday = birthday;
-        if (banned = null) this.banned = false;
+        if (banned == null) this.banned = false;
         else this.banned = banned;
-        this.level = currentLevel(experience);
-        this.untilNextLevel = expToNextLevel(experience);
+        setExperience(experience);
     }
 
     public Long getId() {
@@ -91,8 +116,9 @@ public class Player {
     }
 
     public void setExperience(Integer experience) {
-        this.level = currentLevel(experience);
-        this.untilNextLevel = expToNextLevel(experience);
+        int level = LevelCurve.level(experience);
+        this.level = level;
+        this.untilNextLevel = LevelCurve.experienceForLevel(level + 1) - experience;
         this.experience = experience;
     }
 
@@ -101,11 +127,11 @@ public class Player {
     }
 
     public void setLevel(Integer level) {
-        this.level = currentLevel(this.experience);
+        this.level = LevelCurve.level(this.experience);
     }
 
     public void setUntilNextLevel(Integer untilNextLevel) {
-        this.untilNextLevel = expToNextLevel(this.experience);
+        this.untilNextLevel = LevelCurve.untilNextLevel(this.experience);
     }
 
     public Integer getUntilNextLevel() {
@@ -128,6 +154,10 @@ public class Player {
         this.banned = banned;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
     @Override
     public String toString() {
         return "Player{" +
@@ -143,15 +173,4 @@ public class Player {
                 ", banned=" + banned +
                 '}';
     }
-
-    private Integer currentLevel(Integer experience) {
-        Double result = (Math.sqrt(2500 + 200 * experience) - 50) / 100;
-        return result.intValue();
-    }
-
-    private Integer expToNextLevel(Integer experience) {
-        Integer result = 50 * (level + 1) * (level + 2) - experience;
-        return result;
-    }
-
 }
@@ -0,0 +1,25 @@
+package com.game.entity;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+// The mapping fixes the sequence table and optimizer; the allocation size comes from the
+// INCREMENT_SIZE_SETTING JPA property so the dev profile can hand out ids one at a time.
+public class PlayerIdGenerator extends SequenceStyleGenerator {
+
+    public static final String INCREMENT_SIZE_SETTING = "rpg.player.id.increment-size";
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        Object incrementSize = serviceRegistry.getService(ConfigurationService.class).getSettings().get(INCREMENT_SIZE_SETTING);
+        if (incrementSize != null) {
+            params.setProperty(INCREMENT_PARAM, incrementSize.toString());
+        }
+        super.configure(type, params, serviceRegistry);
+    }
+}
@@ -0,0 +1,10 @@
+package com.game.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.CONFLICT,
+        reason = "The player was changed by another request: GET it again and retry with the new ETag in If-Match")
+public class ConflictException extends RuntimeException {
+
+}
@@ -2,8 +2,27 @@ package com.game.repository;
 
 import com.game.entity.Player;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+import java.util.Optional;
+
 @Repository
-public interface PlayerRepository extends JpaRepository<Player, Long> {
+public interface PlayerRepository extends JpaRepository<Player, Long>, JpaSpecificationExecutor<Player>, PlayerRepositoryCustom {
+
+    // Single DELETE by primary key; returns 0 when there was no such player. Unlike deleteById it
+    // neither loads the player first nor throws for a missing one.
+    @Modifying
+    @Query("delete from Player p where p.id = :id")
+    int deleteIfExists(@Param("id") Long id);
+
+    // SELECT ... FOR UPDATE, past the second-level cache: no other write can commit before this transaction ends.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from Player p where p.id = :id")
+    Optional<Player> findByIdForUpdate(@Param("id") Long id);
 }
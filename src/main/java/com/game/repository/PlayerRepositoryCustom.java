@@ -0,0 +1,33 @@
+package com.game.repository;
+
+import com.game.entity.Player;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public interface PlayerRepositoryCustom {
+
+    // Unlike JpaSpecificationExecutor.findAll(spec, pageable) this never issues the extra count query.
+    List<Player> findPage(Specification<Player> spec, Pageable pageable);
+
+    // Forward-only, read-only scroll over the matching players; must be closed, and only used inside a transaction.
+    Stream<Player> stream(Specification<Player> spec, Sort sort, int fetchSize);
+
+    // Same as JpaSpecificationExecutor.count(spec), but goes through the Hibernate query cache.
+    long count(Specification<Player> spec);
+
+    // Ids of the matching players, at most limit of them; no entity is loaded.
+    List<Long> findIds(Specification<Player> spec, int limit);
+
+    // Single UPDATE player SET <attribute = value, ...>, version = version + 1 WHERE <spec>; returns the
+    // number of updated rows.
+    int updateAll(Specification<Player> spec, Map<String, Object> values);
+
+    // JDBC batch of experience = LEAST(experience + delta, max) with level and untilNextLevel
+    // recomputed in SQL. Bypasses the persistence context and the second-level cache.
+    void addExperience(Map<Long, Integer> deltas);
+}
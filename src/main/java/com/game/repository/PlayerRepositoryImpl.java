@@ -0,0 +1,144 @@
+package com.game.repository;
+
+import com.game.entity.LevelCurve;
+import com.game.entity.Player;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.sql.PreparedStatement;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public class PlayerRepositoryImpl implements PlayerRepositoryCustom {
+
+    private static final String NEW_EXPERIENCE = "LEAST(experience + ?, " + LevelCurve.MAX_EXPERIENCE + ")";
+    // MySQL evaluates single-table SET assignments left to right with already updated values, so
+    // experience is assigned last and the other two columns are computed from the old one.
+    private static final String ADD_EXPERIENCE = "UPDATE player SET"
+            + " untilNextLevel = " + LevelCurve.untilNextLevelSql(NEW_EXPERIENCE) + ","
+            + " level = " + LevelCurve.levelSql(NEW_EXPERIENCE) + ","
+            + " experience = " + NEW_EXPERIENCE + ","
+            + " version = version + 1"
+            + " WHERE id = ?";
+    private static final int ADD_EXPERIENCE_DELTAS = 5;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Player> findPage(Specification<Player> spec, Pageable pageable) {
+        if (pageable.isPaged() && pageable.getOffset() > Integer.MAX_VALUE) {
+            return Collections.emptyList();
+        }
+        TypedQuery<Player> typedQuery = entityManager.createQuery(select(spec, pageable.getSort()))
+                .setHint(QueryHints.HINT_CACHEABLE, true);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        return typedQuery.getResultList();
+    }
+
+    @Override
+    public Stream<Player> stream(Specification<Player> spec, Sort sort, int fetchSize) {
+        return entityManager.createQuery(select(spec, sort))
+                .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .setHint(QueryHints.HINT_CACHE_MODE, CacheMode.IGNORE)
+                .getResultStream();
+    }
+
+    @Override
+    public long count(Specification<Player> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Player> root = query.from(Player.class);
+        query.select(cb.count(root));
+
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        return entityManager.createQuery(query)
+                .setHint(QueryHints.HINT_CACHEABLE, true)
+                .getSingleResult();
+    }
+
+    @Override
+    public List<Long> findIds(Specification<Player> spec, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Player> root = query.from(Player.class);
+        query.select(root.<Long>get("id"));
+
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public int updateAll(Specification<Player> spec, Map<String, Object> values) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Player> update = cb.createCriteriaUpdate(Player.class);
+        Root<Player> root = update.from(Player.class);
+        values.forEach(update::set);
+        // Like an entity update, so that an optimistic update racing with it fails.
+        update.set(root.<Long>get("version"), cb.sum(root.<Long>get("version"), 1L));
+
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, null, cb);
+        if (predicate != null) {
+            update.where(predicate);
+        }
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    public void addExperience(Map<Long, Integer> deltas) {
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(ADD_EXPERIENCE)) {
+                for (Map.Entry<Long, Integer> delta : deltas.entrySet()) {
+                    for (int i = 1; i <= ADD_EXPERIENCE_DELTAS; i++) {
+                        statement.setInt(i, delta.getValue());
+                    }
+                    statement.setLong(ADD_EXPERIENCE_DELTAS + 1, delta.getKey());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+    }
+
+    private CriteriaQuery<Player> select(Specification<Player> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Player> query = cb.createQuery(Player.class);
+        Root<Player> root = query.from(Player.class);
+        query.select(root);
+
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        return query;
+    }
+}
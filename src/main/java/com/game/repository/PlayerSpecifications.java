@@ -0,0 +1,163 @@
+package com.game.repository;
+
+import com.game.dto.FilterDTO;
+import com.game.dto.PlayerCursor;
+import com.game.entity.Player;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Date;
+
+public final class PlayerSpecifications {
+
+    private static final char LIKE_ESCAPE = '!';
+
+    private PlayerSpecifications() {
+    }
+
+    public static Specification<Player> byFilter(FilterDTO filter) {
+        return Specification.where(nameContains(filter.getName()))
+                .and(titleContains(filter.getTitle()))
+                .and(raceIs(filter.getRace()))
+                .and(professionIs(filter.getProfession()))
+                .and(bornAfter(filter.getAfter()))
+                .and(bornBefore(filter.getBefore()))
+                .and(bannedIs(filter.getBanned()))
+                .and(experienceFrom(filter.getMinExperience()))
+                .and(experienceTo(filter.getMaxExperience()))
+                .and(levelFrom(filter.getMinLevel()))
+                .and(levelTo(filter.getMaxLevel()));
+    }
+
+    // LIKE is as case-sensitive as the column's collation: on MySQL only since V2 moved name and
+    // title to utf8mb4_bin, which matches the String.contains of old; H2 is case-sensitive anyway.
+    public static Specification<Player> nameContains(String name) {
+        if (name == null) return null;
+        return (root, query, cb) -> cb.like(root.get("name"), containsPattern(name), LIKE_ESCAPE);
+    }
+
+    public static Specification<Player> titleContains(String title) {
+        if (title == null) return null;
+        return (root, query, cb) -> cb.like(root.get("title"), containsPattern(title), LIKE_ESCAPE);
+    }
+
+    public static Specification<Player> raceIs(Race race) {
+        if (race == null) return null;
+        return (root, query, cb) -> cb.equal(root.get("race"), race);
+    }
+
+    public static Specification<Player> professionIs(Profession profession) {
+        if (profession == null) return null;
+        return (root, query, cb) -> cb.equal(root.get("profession"), profession);
+    }
+
+    public static Specification<Player> bornAfter(Long after) {
+        if (after == null) return null;
+        Date from = firstDateNotBefore(after);
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("birthday"), from);
+    }
+
+    public static Specification<Player> bornBefore(Long before) {
+        if (before == null) return null;
+        Date to = lastDateNotAfter(before);
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("birthday"), to);
+    }
+
+    public static Specification<Player> bannedIs(Boolean banned) {
+        if (banned == null) return null;
+        return (root, query, cb) -> cb.equal(root.get("banned"), banned);
+    }
+
+    // A NULL flag is neither true nor false to bannedIs; here it counts as "not banned".
+    public static Specification<Player> bannedIsNot(boolean banned) {
+        return (root, query, cb) -> cb.or(cb.isNull(root.get("banned")), cb.notEqual(root.get("banned"), banned));
+    }
+
+    public static Specification<Player> experienceFrom(Integer minExperience) {
+        if (minExperience == null) return null;
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("experience"), minExperience);
+    }
+
+    public static Specification<Player> experienceTo(Integer maxExperience) {
+        if (maxExperience == null) return null;
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("experience"), maxExperience);
+    }
+
+    public static Specification<Player> levelFrom(Integer minLevel) {
+        if (minLevel == null) return null;
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("level"), minLevel);
+    }
+
+    public static Specification<Player> levelTo(Integer maxLevel) {
+        if (maxLevel == null) return null;
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("level"), maxLevel);
+    }
+
+    public static Specification<Player> idIn(Collection<Long> ids) {
+        if (ids == null) return null;
+        if (ids.isEmpty()) return (root, query, cb) -> cb.disjunction();
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+
+    // Keyset condition for ascending (key, id) order with NULL keys first, as the database sorts them:
+    // key > k OR (key = k AND id > lastId), and after a NULL key (key IS NULL AND id > lastId) OR key IS NOT NULL.
+    public static Specification<Player> seekAfter(PlayerCursor cursor) {
+        if (cursor == null) return null;
+        return (root, query, cb) -> {
+            Predicate idAfter = cb.greaterThan(root.get("id"), cursor.getId());
+            switch (cursor.getOrder()) {
+                case NAME:
+                    return seek(cb, root.get("name"), cursor.getName(), idAfter);
+                case EXPERIENCE:
+                    return seek(cb, root.get("experience"), cursor.getExperience(), idAfter);
+                case LEVEL:
+                    return seek(cb, root.get("level"), cursor.getLevel(), idAfter);
+                case BIRTHDAY:
+                    return seek(cb, root.get("birthday"), cursor.getBirthday(), idAfter);
+                default:
+                    return idAfter;
+            }
+        };
+    }
+
+    private static <Y extends Comparable<? super Y>> Predicate seek(CriteriaBuilder cb, Path<Y> key, Y value, Predicate idAfter) {
+        if (value == null) {
+            return cb.or(cb.and(cb.isNull(key), idAfter), cb.isNotNull(key));
+        }
+        return cb.or(cb.greaterThan(key, value), cb.and(cb.equal(key, value), idAfter));
+    }
+
+    private static String containsPattern(String value) {
+        String escaped = value
+                .replace(String.valueOf(LIKE_ESCAPE), "" + LIKE_ESCAPE + LIKE_ESCAPE)
+                .replace("%", LIKE_ESCAPE + "%")
+                .replace("_", LIKE_ESCAPE + "_");
+        return "%" + escaped + "%";
+    }
+
+    // birthday is a DATE column read back as local midnight, while the filter bounds are
+    // arbitrary timestamps; round them to whole dates so the comparison stays exact.
+    public static Date firstDateNotBefore(long millis) {
+        LocalDateTime dateTime = Instant.ofEpochMilli(millis).atZone(ZoneId.systemDefault()).toLocalDateTime();
+        LocalDate date = dateTime.toLocalDate();
+        if (!dateTime.toLocalTime().equals(LocalTime.MIDNIGHT)) {
+            date = date.plusDays(1);
+        }
+        return java.sql.Date.valueOf(date);
+    }
+
+    public static Date lastDateNotAfter(long millis) {
+        LocalDate date = Instant.ofEpochMilli(millis).atZone(ZoneId.systemDefault()).toLocalDate();
+        return java.sql.Date.valueOf(date);
+    }
+}
@@ -0,0 +1,9 @@
+package com.game.service;
+
+public enum ExperienceFlushMode {
+    // Grants are summed in memory and written by the periodic or threshold flush; a crash loses
+    // the grants since the last flush, a normal shutdown writes them.
+    BUFFERED,
+    // Every grant is written before the request completes.
+    SYNC
+}
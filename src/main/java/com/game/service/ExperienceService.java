@@ -0,0 +1,152 @@
+package com.game.service;
+
+import com.game.entity.LevelCurve;
+import com.game.entity.Player;
+import com.game.exception.ValidationException;
+import com.game.repository.PlayerRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Experience increments. Buffered grants are summed per player in a ConcurrentHashMap, which only
+// locks the bin of the player being merged, and written as one JDBC batch of relative updates.
+@Service
+public class ExperienceService implements DisposableBean {
+
+    private static final Log log = LogFactory.getLog(ExperienceService.class);
+
+    private final Map<Long, Long> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    private final PlayerService playerService;
+    private final PlayerRepository playerRepository;
+    private final PlayerChangePublisher changePublisher;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TransactionTemplate transactionTemplate;
+    private final ExperienceFlushMode mode;
+    private final int flushThreshold;
+    private final ScheduledExecutorService flusher;
+    private final Counter flushFailures;
+
+    @Autowired
+    public ExperienceService(PlayerService playerService, PlayerRepository playerRepository,
+                             PlayerChangePublisher changePublisher, EntityManagerFactory entityManagerFactory,
+                             PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                             @Value("${player.xp.mode:BUFFERED}") ExperienceFlushMode mode,
+                             @Value("${player.xp.flush-interval-ms:1000}") long flushIntervalMs,
+                             @Value("${player.xp.flush-threshold:10000}") int flushThreshold) {
+        this.playerService = playerService;
+        this.playerRepository = playerRepository;
+        this.changePublisher = changePublisher;
+        this.entityManagerFactory = entityManagerFactory;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.mode = mode;
+        this.flushThreshold = flushThreshold;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("xp-flush-"));
+        this.flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        this.flushFailures = meterRegistry.counter("player.xp.flush.failures");
+        meterRegistry.gauge("player.xp.pending", pending, Map::size);
+    }
+
+    // Returns the updated player when the grant was written synchronously, null when it was buffered.
+    public Player grant(Long id, Integer amount, boolean sync) {
+        if (amount == null || amount <= 0 || amount > LevelCurve.MAX_EXPERIENCE) {
+            throw new ValidationException();
+        }
+        playerService.validateId(id);
+
+        if (sync || mode == ExperienceFlushMode.SYNC) {
+            Map<Long, Integer> deltas = Collections.singletonMap(id, amount);
+            write(deltas);
+            publish(deltas);
+            return playerService.findOne(id);
+        }
+        pending.merge(id, (long) amount, Long::sum);
+        if (pending.size() >= flushThreshold && flushRequested.compareAndSet(false, true)) {
+            flusher.execute(this::flushQuietly);
+        }
+        return null;
+    }
+
+    // Writes everything buffered so far. Grants arriving meanwhile stay for the next flush; if the
+    // write fails the drained grants are put back. Once the batch is committed they are never put
+    // back: a failure to refresh the caches afterwards must not grant the experience twice.
+    public synchronized void flush() {
+        Map<Long, Integer> deltas = new HashMap<>();
+        for (Long id : pending.keySet()) {
+            Long delta = pending.remove(id);
+            if (delta != null) {
+                deltas.put(id, (int) Math.min(delta, LevelCurve.MAX_EXPERIENCE));
+            }
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+        try {
+            write(deltas);
+        } catch (RuntimeException e) {
+            deltas.forEach((id, delta) -> pending.merge(id, (long) delta, Long::sum));
+            throw e;
+        }
+        publish(deltas);
+    }
+
+    public int pendingPlayers() {
+        return pending.size();
+    }
+
+    // Shutdown drain: stops the scheduled flushes and writes what is still buffered.
+    @Override
+    public void destroy() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(30, TimeUnit.SECONDS);
+        flush();
+    }
+
+    private void flushQuietly() {
+        flushRequested.set(false);
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            // an uncommitted batch is kept in the buffer and retried by the next scheduled flush
+            flushFailures.increment();
+            log.error("Experience flush failed, " + pending.size() + " players pending", e);
+        }
+    }
+
+    private void write(Map<Long, Integer> deltas) {
+        transactionTemplate.execute(status -> {
+            playerRepository.addExperience(deltas);
+            return null;
+        });
+    }
+
+    // The batch goes around Hibernate, so the updated players and the cached query results are
+    // evicted by hand before the players are re-read for the listeners.
+    private void publish(Map<Long, Integer> deltas) {
+        Cache cache = entityManagerFactory.getCache();
+        deltas.keySet().forEach(id -> cache.evict(Player.class, id));
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+        changePublisher.playersChanged(playerRepository.findAllById(deltas.keySet()));
+    }
+}
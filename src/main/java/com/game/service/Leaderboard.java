@@ -0,0 +1,201 @@
+package com.game.service;
+
+import com.game.dto.RankDTO;
+import com.game.entity.Player;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Players ranked by experience (highest first, ties by id) overall, per race, per profession and per
+// race and profession, kept in order-statistic trees updated from the change events. Loaded from the table on first use
+// and again after a reload. Players without experience are not ranked.
+@Component
+public class Leaderboard implements PlayerChangeListener {
+
+    private static final class Entry {
+        final int experience;
+        final Race race;
+        final Profession profession;
+
+        Entry(Player player) {
+            this.experience = player.getExperience();
+            this.race = player.getRace();
+            this.profession = player.getProfession();
+        }
+    }
+
+    // Recorded for a deleted id, which no later event can bring back.
+    private static final long DELETED = Long.MAX_VALUE;
+
+    private final PlayerScanner playerScanner;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    // Last version applied per id, ranked or not; listeners of concurrent commits run in any order.
+    private final Map<Long, Long> versions = new HashMap<>();
+    private final OrderStatisticTree global = new OrderStatisticTree();
+    private final OrderStatisticTree[] byRace = trees(Race.values().length);
+    private final OrderStatisticTree[] byProfession = trees(Profession.values().length);
+    private final OrderStatisticTree[] byRaceAndProfession = trees(Race.values().length * Profession.values().length);
+    private boolean loaded;
+
+    @Autowired
+    public Leaderboard(PlayerScanner playerScanner) {
+        this.playerScanner = playerScanner;
+    }
+
+    // Ids of the highest ranked players, optionally of one race and/or profession.
+    public long[] top(Race race, Profession profession, int limit) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            OrderStatisticTree tree = race != null && profession != null ? byRaceAndProfession[pair(race, profession)]
+                    : race != null ? byRace[race.ordinal()]
+                    : profession != null ? byProfession[profession.ordinal()] : global;
+            return tree.top(limit, id -> true);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 1-based ranks of the player overall and within its race and profession; null if unknown.
+    public RankDTO rank(long id) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            Entry entry = entries.get(id);
+            if (entry == null) {
+                return null;
+            }
+            RankDTO rank = new RankDTO();
+            rank.setId(id);
+            rank.setExperience(entry.experience);
+            rank.setRank(global.rankOf(entry.experience, id) + 1);
+            rank.setTotal(global.size());
+            if (entry.race != null) {
+                rank.setRaceRank(byRace[entry.race.ordinal()].rankOf(entry.experience, id) + 1);
+            }
+            if (entry.profession != null) {
+                rank.setProfessionRank(byProfession[entry.profession.ordinal()].rankOf(entry.experience, id) + 1);
+            }
+            return rank;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void playersChanged(Collection<Player> players) {
+        lock.writeLock().lock();
+        try {
+            if (!loaded) return;
+            players.forEach(this::put);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void playersDeleted(Collection<Long> ids) {
+        lock.writeLock().lock();
+        try {
+            if (!loaded) return;
+            ids.forEach(this::delete);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void playersReloaded() {
+        lock.writeLock().lock();
+        try {
+            loaded = false;
+            entries.clear();
+            versions.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Events arriving during the load wait for the write lock; one the scan already saw carries no
+    // newer version, and put() skips it.
+    private void ensureLoaded() {
+        lock.readLock().lock();
+        try {
+            if (loaded) return;
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            if (loaded) return;
+            entries.clear();
+            versions.clear();
+            global.clear();
+            clear(byRace);
+            clear(byProfession);
+            clear(byRaceAndProfession);
+            playerScanner.forEach(this::put);
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(Player player) {
+        Long applied = versions.get(player.getId());
+        if (applied != null && applied > player.getVersion()) return;
+        versions.put(player.getId(), player.getVersion());
+        remove(player.getId());
+        if (player.getExperience() == null) return;
+        Entry entry = new Entry(player);
+        entries.put(player.getId(), entry);
+        global.insert(entry.experience, player.getId());
+        if (entry.race != null) byRace[entry.race.ordinal()].insert(entry.experience, player.getId());
+        if (entry.profession != null) byProfession[entry.profession.ordinal()].insert(entry.experience, player.getId());
+        if (entry.race != null && entry.profession != null) {
+            byRaceAndProfession[pair(entry.race, entry.profession)].insert(entry.experience, player.getId());
+        }
+    }
+
+    private void delete(Long id) {
+        remove(id);
+        versions.put(id, DELETED);
+    }
+
+    private void remove(Long id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) return;
+        global.remove(entry.experience, id);
+        if (entry.race != null) byRace[entry.race.ordinal()].remove(entry.experience, id);
+        if (entry.profession != null) byProfession[entry.profession.ordinal()].remove(entry.experience, id);
+        if (entry.race != null && entry.profession != null) {
+            byRaceAndProfession[pair(entry.race, entry.profession)].remove(entry.experience, id);
+        }
+    }
+
+    private static int pair(Race race, Profession profession) {
+        return race.ordinal() * Profession.values().length + profession.ordinal();
+    }
+
+    private static OrderStatisticTree[] trees(int count) {
+        OrderStatisticTree[] trees = new OrderStatisticTree[count];
+        for (int i = 0; i < count; i++) {
+            trees[i] = new OrderStatisticTree();
+        }
+        return trees;
+    }
+
+    private static void clear(OrderStatisticTree[] trees) {
+        for (OrderStatisticTree tree : trees) {
+            tree.clear();
+        }
+    }
+}
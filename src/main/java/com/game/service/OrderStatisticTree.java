@@ -0,0 +1,159 @@
+package com.game.service;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongPredicate;
+
+// Treap of (experience, id) pairs ordered by experience descending, then id ascending. Every node
+// keeps the size of its subtree, so rank and positional access are O(log n) expected. Not thread-safe.
+class OrderStatisticTree {
+
+    private static final class Node {
+        final int experience;
+        final long id;
+        final int priority;
+        int size = 1;
+        Node left;
+        Node right;
+
+        Node(int experience, long id) {
+            this.experience = experience;
+            this.id = id;
+            this.priority = ThreadLocalRandom.current().nextInt();
+        }
+    }
+
+    private Node root;
+
+    int size() {
+        return size(root);
+    }
+
+    void clear() {
+        root = null;
+    }
+
+    void insert(int experience, long id) {
+        root = insert(root, new Node(experience, id));
+    }
+
+    void remove(int experience, long id) {
+        root = remove(root, experience, id);
+    }
+
+    // Number of entries ranked ahead of the given one; its 1-based rank is this plus one.
+    int rankOf(int experience, long id) {
+        int ahead = 0;
+        Node node = root;
+        while (node != null) {
+            int cmp = compare(experience, id, node);
+            if (cmp <= 0) {
+                node = node.left;
+            } else {
+                ahead += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return ahead;
+    }
+
+    // Ids of the first entries in rank order that match the filter, at most limit of them.
+    long[] top(int limit, LongPredicate filter) {
+        long[] ids = new long[Math.min(limit, size())];
+        int count = 0;
+        Deque<Node> path = new ArrayDeque<>();
+        Node node = root;
+        while (count < ids.length && (node != null || !path.isEmpty())) {
+            while (node != null) {
+                path.push(node);
+                node = node.left;
+            }
+            node = path.pop();
+            if (filter.test(node.id)) {
+                ids[count++] = node.id;
+            }
+            node = node.right;
+        }
+        return count == ids.length ? ids : Arrays.copyOf(ids, count);
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (added.priority > node.priority) {
+            Node[] parts = split(node, added.experience, added.id);
+            added.left = parts[0];
+            added.right = parts[1];
+            return update(added);
+        }
+        if (compare(added.experience, added.id, node) < 0) {
+            node.left = insert(node.left, added);
+        } else {
+            node.right = insert(node.right, added);
+        }
+        return update(node);
+    }
+
+    private static Node remove(Node node, int experience, long id) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(experience, id, node);
+        if (cmp == 0) {
+            return merge(node.left, node.right);
+        }
+        if (cmp < 0) {
+            node.left = remove(node.left, experience, id);
+        } else {
+            node.right = remove(node.right, experience, id);
+        }
+        return update(node);
+    }
+
+    // Entries ranked ahead of (experience, id) and the rest.
+    private static Node[] split(Node node, int experience, long id) {
+        if (node == null) {
+            return new Node[2];
+        }
+        if (compare(experience, id, node) > 0) {
+            Node[] parts = split(node.right, experience, id);
+            node.right = parts[0];
+            parts[0] = update(node);
+            return parts;
+        }
+        Node[] parts = split(node.left, experience, id);
+        node.left = parts[1];
+        parts[1] = update(node);
+        return parts;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) return right;
+        if (right == null) return left;
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            return update(left);
+        }
+        right.left = merge(left, right.left);
+        return update(right);
+    }
+
+    private static Node update(Node node) {
+        node.size = size(node.left) + size(node.right) + 1;
+        return node;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static int compare(int experience, long id, Node node) {
+        if (experience != node.experience) {
+            return experience > node.experience ? -1 : 1;
+        }
+        return Long.compare(id, node.id);
+    }
+}
@@ -0,0 +1,86 @@
+package com.game.service;
+
+import com.game.entity.Player;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+// Read-through cache of players by id. Instances handed out are shared and must not be modified.
+@Component
+public class PlayerCache implements PlayerChangeListener {
+
+    private final boolean enabled;
+    private final Cache<Long, Player> cache;
+
+    @Autowired
+    public PlayerCache(@Value("${player.cache.enabled:true}") boolean enabled,
+                       @Value("${player.cache.maximum-size:10000}") long maximumSize,
+                       @Value("${player.cache.ttl-seconds:300}") long ttlSeconds,
+                       MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "players");
+    }
+
+    public Player get(Long id, Function<Long, Player> loader) {
+        return enabled ? cache.get(id, loader) : loader.apply(id);
+    }
+
+    public Map<Long, Player> getAll(Collection<Long> ids, Function<Iterable<? extends Long>, Map<Long, Player>> loader) {
+        return enabled ? cache.getAll(ids, loader) : loader.apply(ids);
+    }
+
+    // Never loads; null when the player is not cached.
+    public Player getIfPresent(Long id) {
+        return enabled ? cache.getIfPresent(id) : null;
+    }
+
+    public void evict(Long id) {
+        cache.invalidate(id);
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    // Listeners of concurrent commits may run in any order; an older version never replaces a newer one.
+    @Override
+    public void playersChanged(Collection<Player> players) {
+        if (!enabled) return;
+        players.forEach(player -> cache.asMap().merge(player.getId(), player,
+                (cached, changed) -> changed.getVersion() >= cached.getVersion() ? changed : cached));
+    }
+
+    // An import would otherwise push the players actually being read out of the cache.
+    @Override
+    public void playersImported(Collection<Player> players) {
+    }
+
+    @Override
+    public void playersDeleted(Collection<Long> ids) {
+        cache.invalidateAll(ids);
+    }
+
+    @Override
+    public void playersReloaded() {
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,32 @@
+package com.game.service;
+
+import com.game.entity.Player;
+
+import java.util.Collection;
+
+// Notified by PlayerChangePublisher after a write to the player table has been committed, in @Order.
+// The in-memory copies that answer queries come first and the query cache after them, so a query
+// run between two listeners can never be cached from a copy that has not seen the write yet.
+// Listeners without an order run last.
+public interface PlayerChangeListener {
+
+    int SEARCH_INDEX_ORDER = 0;
+    int SNAPSHOT_ORDER = 1;
+    int QUERY_CACHE_ORDER = 2;
+
+    default void playersChanged(Collection<Player> players) {
+    }
+
+    // New players from a bulk import; nobody has asked for them yet, so caches of read players
+    // can skip them while indexes over the whole table still need them.
+    default void playersImported(Collection<Player> players) {
+        playersChanged(players);
+    }
+
+    default void playersDeleted(Collection<Long> ids) {
+    }
+
+    // The table may have been rewritten without going through the service; drop or rebuild all state.
+    default void playersReloaded() {
+    }
+}
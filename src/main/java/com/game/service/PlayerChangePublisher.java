@@ -0,0 +1,81 @@
+package com.game.service;
+
+import com.game.entity.Player;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+@Component
+public class PlayerChangePublisher {
+
+    private static final Log log = LogFactory.getLog(PlayerChangePublisher.class);
+
+    private final List<PlayerChangeListener> listeners;
+
+    @Autowired
+    public PlayerChangePublisher(List<PlayerChangeListener> listeners) {
+        this.listeners = listeners;
+    }
+
+    public void playerChanged(Player player) {
+        playersChanged(Collections.singletonList(player));
+    }
+
+    public void playersChanged(Collection<Player> players) {
+        afterCommit(listener -> listener.playersChanged(players));
+    }
+
+    public void playersImported(Collection<Player> players) {
+        afterCommit(listener -> listener.playersImported(players));
+    }
+
+    public void playerDeleted(Long id) {
+        playersDeleted(Collections.singletonList(id));
+    }
+
+    public void playersDeleted(Collection<Long> ids) {
+        afterCommit(listener -> listener.playersDeleted(ids));
+    }
+
+    public void playersReloaded() {
+        afterCommit(PlayerChangeListener::playersReloaded);
+    }
+
+    private void afterCommit(Consumer<PlayerChangeListener> event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            notifyListeners(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                notifyListeners(event);
+            }
+        });
+    }
+
+    // A failing listener must not keep the others from seeing the change, nor the request that made it
+    // from completing. Its state has missed the event, so it is told to drop everything instead.
+    private void notifyListeners(Consumer<PlayerChangeListener> event) {
+        for (PlayerChangeListener listener : listeners) {
+            try {
+                event.accept(listener);
+            } catch (RuntimeException e) {
+                log.error("Player change listener " + listener.getClass().getSimpleName() + " failed, reloading it", e);
+                try {
+                    listener.playersReloaded();
+                } catch (RuntimeException reloadFailure) {
+                    log.error("Player change listener " + listener.getClass().getSimpleName() + " failed to reload", reloadFailure);
+                }
+            }
+        }
+    }
+}
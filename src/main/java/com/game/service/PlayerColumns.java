@@ -0,0 +1,495 @@
+package com.game.service;
+
+import com.game.controller.PlayerOrder;
+import com.game.dto.FilterDTO;
+import com.game.dto.PlayerCursor;
+import com.game.entity.Player;
+import com.game.repository.PlayerSpecifications;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntUnaryOperator;
+
+// The player table as primitive columns. A player occupies a row slot until it is deleted; filters
+// are evaluated column by column into a bitmap of matching rows, one 64-row word at a time, and
+// every PlayerOrder has a permutation of the live rows sorted by its key and then id, so a page is
+// a walk over the permutation that picks the matching rows. Not thread-safe.
+public final class PlayerColumns {
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final PlayerOrder[] ORDERS = PlayerOrder.values();
+    // Null markers below every value a bound can take; the millis are clamped far beyond any real
+    // date so the range arithmetic cannot overflow.
+    private static final int NULL_INT = Integer.MIN_VALUE;
+    private static final long MAX_MILLIS = 1L << 60;
+    private static final long NULL_MILLIS = -MAX_MILLIS - 1;
+
+    // Row slots in use, deleted ones included; live rows are the ones in the permutations.
+    private int size;
+    private int live;
+
+    private long[] ids;
+    private String[] names;
+    private String[] titles;
+    // Enum ordinal + 1, 0 for null.
+    private byte[] races;
+    private byte[] professions;
+    // Epoch millis of the local midnight the DATE column is read back as.
+    private long[] birthdays;
+    private int[] experience;
+    private int[] levels;
+    // Set bits of banned are the banned rows, of bannedKnown the rows whose flag is not null.
+    private long[] banned;
+    private long[] bannedKnown;
+    private long[] present;
+
+    private final int[][] orders = new int[ORDERS.length][];
+
+    public PlayerColumns() {
+        allocate(INITIAL_CAPACITY);
+        for (int i = 0; i < ORDERS.length; i++) {
+            orders[i] = new int[INITIAL_CAPACITY];
+        }
+    }
+
+    // Columns of the players a scan hands out, e.g. PlayerScanner::forEach; every id at most once.
+    // The rows are appended and each permutation is sorted once at the end.
+    public static PlayerColumns load(Consumer<Consumer<Player>> scan) {
+        PlayerColumns columns = new PlayerColumns();
+        scan.accept(player -> {
+            if (columns.size == columns.ids.length) columns.grow();
+            int row = columns.size++;
+            columns.write(row, player);
+            columns.present[row >> 6] |= 1L << row;
+        });
+        columns.live = columns.size;
+        for (PlayerOrder order : ORDERS) {
+            int[] permutation = new int[columns.ids.length];
+            for (int row = 0; row < columns.size; row++) {
+                permutation[row] = row;
+            }
+            sort(permutation, columns.size, columns.comparator(order));
+            columns.orders[order.ordinal()] = permutation;
+        }
+        return columns;
+    }
+
+    public int size() {
+        return live;
+    }
+
+    public void put(Player player) {
+        int row = rowOf(player.getId());
+        if (row < 0) {
+            if (size == ids.length) grow();
+            row = size++;
+            write(row, player);
+            present[row >> 6] |= 1L << row;
+            for (PlayerOrder order : ORDERS) {
+                link(order, row, live);
+            }
+            live++;
+            return;
+        }
+        int[] positions = new int[ORDERS.length];
+        for (PlayerOrder order : ORDERS) {
+            positions[order.ordinal()] = position(order, row, live);
+        }
+        write(row, player);
+        // Only the permutations whose key moved the row out of place are touched.
+        for (PlayerOrder order : ORDERS) {
+            int position = positions[order.ordinal()];
+            if (!inPlace(order, position)) {
+                unlink(order, position, live);
+                link(order, row, live - 1);
+            }
+        }
+    }
+
+    public void remove(long id) {
+        int row = rowOf(id);
+        if (row < 0) return;
+        for (PlayerOrder order : ORDERS) {
+            unlink(order, position(order, row, live), live);
+        }
+        present[row >> 6] &= ~(1L << row);
+        names[row] = null;
+        titles[row] = null;
+        live--;
+        if (size - live > live && size > INITIAL_CAPACITY) {
+            compact();
+        }
+    }
+
+    public long count(FilterDTO filter) {
+        if (!filter.hasCriteria()) return live;
+        Query query = new Query(filter);
+        long count = 0;
+        for (int word = 0, words = words(size); word < words; word++) {
+            count += Long.bitCount(query.match(word));
+        }
+        return count;
+    }
+
+    // Ids of one page in the given order: the first limit matches after skipping offset of them,
+    // counted from the start or, with a cursor, from the first row after the cursor position.
+    // Bitmap words are evaluated as the walk reaches them, so a page found early stops the scan.
+    public long[] page(FilterDTO filter, PlayerOrder order, PlayerCursor cursor, int offset, int limit) {
+        int[] permutation = orders[order.ordinal()];
+        int from = cursor == null ? 0 : seek(order, cursor);
+        long[] page = new long[limit];
+        int found = 0;
+        if (!filter.hasCriteria()) {
+            for (long i = (long) from + offset; i < live && found < limit; i++) {
+                page[found++] = ids[permutation[(int) i]];
+            }
+            return Arrays.copyOf(page, found);
+        }
+        Query query = new Query(filter);
+        long[] matches = new long[words(size)];
+        boolean[] evaluated = new boolean[matches.length];
+        int skipped = 0;
+        for (int i = from; i < live && found < limit; i++) {
+            int row = permutation[i];
+            int word = row >> 6;
+            if (!evaluated[word]) {
+                matches[word] = query.match(word);
+                evaluated[word] = true;
+            }
+            if ((matches[word] & 1L << row) == 0) continue;
+            if (skipped < offset) {
+                skipped++;
+            } else {
+                page[found++] = ids[row];
+            }
+        }
+        return Arrays.copyOf(page, found);
+    }
+
+    // A filter resolved to column values and bounds. match() gives the bitmap word of 64 rows: the
+    // primitive columns are compared without branches, the substring checks only look at the rows
+    // still set. A missing bound is one past the null marker, so nulls never match, as in SQL.
+    private final class Query {
+        final int race;
+        final int profession;
+        final Boolean banned;
+        final boolean experienceBounded;
+        final long minExperience;
+        final long maxExperience;
+        final boolean levelBounded;
+        final long minLevel;
+        final long maxLevel;
+        final boolean birthdayBounded;
+        final long after;
+        final long before;
+        final String name;
+        final String title;
+
+        Query(FilterDTO filter) {
+            race = filter.getRace() == null ? 0 : filter.getRace().ordinal() + 1;
+            profession = filter.getProfession() == null ? 0 : filter.getProfession().ordinal() + 1;
+            banned = filter.getBanned();
+            experienceBounded = filter.getMinExperience() != null || filter.getMaxExperience() != null;
+            minExperience = filter.getMinExperience() == null ? NULL_INT + 1L : filter.getMinExperience();
+            maxExperience = filter.getMaxExperience() == null ? Integer.MAX_VALUE : filter.getMaxExperience();
+            levelBounded = filter.getMinLevel() != null || filter.getMaxLevel() != null;
+            minLevel = filter.getMinLevel() == null ? NULL_INT + 1L : filter.getMinLevel();
+            maxLevel = filter.getMaxLevel() == null ? Integer.MAX_VALUE : filter.getMaxLevel();
+            birthdayBounded = filter.getAfter() != null || filter.getBefore() != null;
+            after = filter.getAfter() == null ? -MAX_MILLIS
+                    : clamp(PlayerSpecifications.firstDateNotBefore(filter.getAfter()).getTime());
+            before = filter.getBefore() == null ? MAX_MILLIS
+                    : clamp(PlayerSpecifications.lastDateNotAfter(filter.getBefore()).getTime());
+            name = filter.getName();
+            title = filter.getTitle();
+        }
+
+        long match(int word) {
+            int base = word << 6;
+            int end = Math.min(64, size - base);
+            long bits = present[word];
+            if (race != 0 && bits != 0) bits &= equal(races, race, base, end);
+            if (profession != 0 && bits != 0) bits &= equal(professions, profession, base, end);
+            if (banned != null) bits &= bannedKnown[word] & (banned ? PlayerColumns.this.banned[word] : ~PlayerColumns.this.banned[word]);
+            if (experienceBounded && bits != 0) bits &= between(experience, minExperience, maxExperience, base, end);
+            if (levelBounded && bits != 0) bits &= between(levels, minLevel, maxLevel, base, end);
+            if (birthdayBounded && bits != 0) bits &= between(birthdays, after, before, base, end);
+            if (name != null && bits != 0) bits = contains(names, name, base, bits);
+            if (title != null && bits != 0) bits = contains(titles, title, base, bits);
+            return bits;
+        }
+    }
+
+    private static long equal(byte[] column, int value, int base, int end) {
+        long bits = 0;
+        for (int bit = 0; bit < end; bit++) {
+            bits |= (long) (((column[base + bit] ^ value) - 1) >>> 31) << bit;
+        }
+        return bits;
+    }
+
+    // (value - min) and (max - value) are both non-negative exactly when the value is in range.
+    private static long between(int[] column, long min, long max, int base, int end) {
+        long bits = 0;
+        for (int bit = 0; bit < end; bit++) {
+            long value = column[base + bit];
+            bits |= ((value - min | max - value) >>> 63 ^ 1) << bit;
+        }
+        return bits;
+    }
+
+    private static long between(long[] column, long min, long max, int base, int end) {
+        long bits = 0;
+        for (int bit = 0; bit < end; bit++) {
+            long value = column[base + bit];
+            bits |= ((value - min | max - value) >>> 63 ^ 1) << bit;
+        }
+        return bits;
+    }
+
+    private static long contains(String[] column, String term, int base, long bits) {
+        long matches = bits;
+        while (bits != 0) {
+            int bit = Long.numberOfTrailingZeros(bits);
+            bits &= bits - 1;
+            String value = column[base + bit];
+            if (value == null || !value.contains(term)) {
+                matches &= ~(1L << bit);
+            }
+        }
+        return matches;
+    }
+
+    private void write(int row, Player player) {
+        ids[row] = player.getId();
+        names[row] = player.getName();
+        titles[row] = player.getTitle();
+        races[row] = (byte) (player.getRace() == null ? 0 : player.getRace().ordinal() + 1);
+        professions[row] = (byte) (player.getProfession() == null ? 0 : player.getProfession().ordinal() + 1);
+        birthdays[row] = player.getBirthday() == null ? NULL_MILLIS : clamp(localMidnight(player.getBirthday().getTime()));
+        experience[row] = player.getExperience() == null ? NULL_INT : player.getExperience();
+        levels[row] = player.getLevel() == null ? NULL_INT : player.getLevel();
+        if (Boolean.TRUE.equals(player.getBanned())) banned[row >> 6] |= 1L << row;
+        else banned[row >> 6] &= ~(1L << row);
+        if (player.getBanned() != null) bannedKnown[row >> 6] |= 1L << row;
+        else bannedKnown[row >> 6] &= ~(1L << row);
+    }
+
+    // Row of a live player, -1 if there is none.
+    private int rowOf(long id) {
+        int[] byId = orders[PlayerOrder.ID.ordinal()];
+        int low = 0;
+        int high = live - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long middleId = ids[byId[middle]];
+            if (middleId < id) low = middle + 1;
+            else if (middleId > id) high = middle - 1;
+            else return byId[middle];
+        }
+        return -1;
+    }
+
+    // Position of a live row in a permutation; exact because ties are broken by the unique id.
+    private int position(PlayerOrder order, int row, int length) {
+        IntBinaryOperator comparator = comparator(order);
+        return search(order, length, other -> comparator.applyAsInt(other, row));
+    }
+
+    // First position whose row sorts after the cursor; the cursor row itself may be gone already.
+    private int seek(PlayerOrder order, PlayerCursor cursor) {
+        int position = search(order, live, row -> {
+            int result;
+            switch (order) {
+                case NAME:
+                    result = compare(names[row], cursor.getName());
+                    break;
+                case EXPERIENCE:
+                    result = Integer.compare(experience[row], cursor.getExperience() == null ? NULL_INT : cursor.getExperience());
+                    break;
+                case LEVEL:
+                    result = Integer.compare(levels[row], cursor.getLevel() == null ? NULL_INT : cursor.getLevel());
+                    break;
+                case BIRTHDAY:
+                    result = Long.compare(birthdays[row], cursor.getBirthday() == null ? NULL_MILLIS : cursor.getBirthday().getTime());
+                    break;
+                default:
+                    result = 0;
+            }
+            return result != 0 ? result : Long.compare(ids[row], cursor.getId());
+        });
+        return position >= 0 ? position + 1 : -position - 1;
+    }
+
+    // Binary search over the first length entries of a permutation; the probe compares a row with
+    // the target.
+    private int search(PlayerOrder order, int length, IntUnaryOperator probe) {
+        int[] permutation = orders[order.ordinal()];
+        int low = 0;
+        int high = length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int result = probe.applyAsInt(permutation[middle]);
+            if (result < 0) low = middle + 1;
+            else if (result > 0) high = middle - 1;
+            else return middle;
+        }
+        return -(low + 1);
+    }
+
+    private boolean inPlace(PlayerOrder order, int position) {
+        int[] permutation = orders[order.ordinal()];
+        IntBinaryOperator comparator = comparator(order);
+        int row = permutation[position];
+        return (position == 0 || comparator.applyAsInt(permutation[position - 1], row) < 0)
+                && (position == live - 1 || comparator.applyAsInt(row, permutation[position + 1]) < 0);
+    }
+
+    // Inserts a row that is not in the permutation, which holds length rows.
+    private void link(PlayerOrder order, int row, int length) {
+        int position = -position(order, row, length) - 1;
+        int[] permutation = orders[order.ordinal()];
+        if (length == permutation.length) {
+            permutation = Arrays.copyOf(permutation, permutation.length * 2);
+            orders[order.ordinal()] = permutation;
+        }
+        System.arraycopy(permutation, position, permutation, position + 1, length - position);
+        permutation[position] = row;
+    }
+
+    private void unlink(PlayerOrder order, int position, int length) {
+        int[] permutation = orders[order.ordinal()];
+        System.arraycopy(permutation, position + 1, permutation, position, length - position - 1);
+    }
+
+    private IntBinaryOperator comparator(PlayerOrder order) {
+        switch (order) {
+            case NAME:
+                return (a, b) -> {
+                    int result = compare(names[a], names[b]);
+                    return result != 0 ? result : Long.compare(ids[a], ids[b]);
+                };
+            case EXPERIENCE:
+                return (a, b) -> experience[a] != experience[b] ? Integer.compare(experience[a], experience[b]) : Long.compare(ids[a], ids[b]);
+            case LEVEL:
+                return (a, b) -> levels[a] != levels[b] ? Integer.compare(levels[a], levels[b]) : Long.compare(ids[a], ids[b]);
+            case BIRTHDAY:
+                return (a, b) -> birthdays[a] != birthdays[b] ? Long.compare(birthdays[a], birthdays[b]) : Long.compare(ids[a], ids[b]);
+            default:
+                return (a, b) -> Long.compare(ids[a], ids[b]);
+        }
+    }
+
+    // Moves the live rows to the front in id order once more than half of the slots are deleted.
+    private void compact() {
+        int[] byId = orders[PlayerOrder.ID.ordinal()];
+        int[] moved = new int[size];
+        for (int i = 0; i < live; i++) {
+            moved[byId[i]] = i;
+        }
+        long[] oldIds = ids;
+        String[] oldNames = names;
+        String[] oldTitles = titles;
+        byte[] oldRaces = races;
+        byte[] oldProfessions = professions;
+        long[] oldBirthdays = birthdays;
+        int[] oldExperience = experience;
+        int[] oldLevels = levels;
+        long[] oldBanned = banned;
+        long[] oldBannedKnown = bannedKnown;
+        allocate(Math.max(INITIAL_CAPACITY, live * 2));
+        for (int i = 0; i < live; i++) {
+            int row = byId[i];
+            ids[i] = oldIds[row];
+            names[i] = oldNames[row];
+            titles[i] = oldTitles[row];
+            races[i] = oldRaces[row];
+            professions[i] = oldProfessions[row];
+            birthdays[i] = oldBirthdays[row];
+            experience[i] = oldExperience[row];
+            levels[i] = oldLevels[row];
+            if ((oldBanned[row >> 6] & 1L << row) != 0) banned[i >> 6] |= 1L << i;
+            if ((oldBannedKnown[row >> 6] & 1L << row) != 0) bannedKnown[i >> 6] |= 1L << i;
+            present[i >> 6] |= 1L << i;
+        }
+        size = live;
+        for (PlayerOrder order : ORDERS) {
+            int[] permutation = new int[ids.length];
+            int[] old = orders[order.ordinal()];
+            for (int i = 0; i < live; i++) {
+                permutation[i] = moved[old[i]];
+            }
+            orders[order.ordinal()] = permutation;
+        }
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        names = Arrays.copyOf(names, capacity);
+        titles = Arrays.copyOf(titles, capacity);
+        races = Arrays.copyOf(races, capacity);
+        professions = Arrays.copyOf(professions, capacity);
+        birthdays = Arrays.copyOf(birthdays, capacity);
+        experience = Arrays.copyOf(experience, capacity);
+        levels = Arrays.copyOf(levels, capacity);
+        banned = Arrays.copyOf(banned, words(capacity));
+        bannedKnown = Arrays.copyOf(bannedKnown, words(capacity));
+        present = Arrays.copyOf(present, words(capacity));
+    }
+
+    private void allocate(int capacity) {
+        ids = new long[capacity];
+        names = new String[capacity];
+        titles = new String[capacity];
+        races = new byte[capacity];
+        professions = new byte[capacity];
+        birthdays = new long[capacity];
+        experience = new int[capacity];
+        levels = new int[capacity];
+        banned = new long[words(capacity)];
+        bannedKnown = new long[words(capacity)];
+        present = new long[words(capacity)];
+    }
+
+    private static int words(int bits) {
+        return (bits + 63) >>> 6;
+    }
+
+    // Nulls first, like the database.
+    private static int compare(String a, String b) {
+        if (a == null || b == null) return a == null ? (b == null ? 0 : -1) : 1;
+        return a.compareTo(b);
+    }
+
+    private static long clamp(long millis) {
+        return Math.max(-MAX_MILLIS, Math.min(MAX_MILLIS, millis));
+    }
+
+    private static long localMidnight(long millis) {
+        return PlayerSpecifications.lastDateNotAfter(millis).getTime();
+    }
+
+    // Stable merge sort of the first length entries; the permutations are too large to box.
+    private static void sort(int[] rows, int length, IntBinaryOperator comparator) {
+        int[] buffer = new int[length];
+        for (int width = 1; width < length; width *= 2) {
+            for (int low = 0; low < length - width; low += 2 * width) {
+                int middle = low + width;
+                int high = Math.min(low + 2 * width, length);
+                if (comparator.applyAsInt(rows[middle - 1], rows[middle]) <= 0) continue;
+                System.arraycopy(rows, low, buffer, low, high - low);
+                int left = low;
+                int right = middle;
+                for (int i = low; i < high; i++) {
+                    if (right >= high || left < middle && comparator.applyAsInt(buffer[left], buffer[right]) <= 0) {
+                        rows[i] = buffer[left++];
+                    } else {
+                        rows[i] = buffer[right++];
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.game.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.game.controller.ExportFormat;
+import com.game.dto.FilterDTO;
+import com.game.entity.Player;
+import com.game.repository.PlayerRepository;
+import com.game.repository.PlayerSpecifications;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+public class PlayerExportService {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final PlayerRepository playerRepository;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    @Autowired
+    public PlayerExportService(PlayerRepository playerRepository, ObjectMapper objectMapper,
+                               @Value("${player.export.fetch-size:1000}") int fetchSize) {
+        this.playerRepository = playerRepository;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    // Writes every player matching the filter in the filter's order, one row at a time, and closes out.
+    // Each row is detached once written, so memory use does not depend on the number of players.
+    // A failed write (e.g. the client went away) ends the scroll and is rethrown.
+    @Transactional(readOnly = true)
+    public void export(FilterDTO filter, ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<Player> players = playerRepository.stream(PlayerSpecifications.byFilter(filter),
+                PlayerService.sortBy(PlayerService.order(filter)), fetchSize);
+             RowWriter writer = format == ExportFormat.CSV ? new CsvRowWriter(out) : new NdjsonRowWriter(objectMapper, out)) {
+            Iterator<Player> iterator = players.iterator();
+            while (iterator.hasNext()) {
+                Player player = iterator.next();
+                writer.write(player);
+                entityManager.detach(player);
+            }
+        }
+    }
+
+    private interface RowWriter extends Closeable {
+        void write(Player player) throws IOException;
+    }
+
+    private static final class NdjsonRowWriter implements RowWriter {
+        private final SequenceWriter writer;
+
+        NdjsonRowWriter(ObjectMapper objectMapper, OutputStream out) throws IOException {
+            this.writer = objectMapper.writer()
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                    .withRootValueSeparator("\n")
+                    .writeValues(out);
+        }
+
+        @Override
+        public void write(Player player) throws IOException {
+            writer.write(player);
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+        private static final String HEADER = "id,name,title,race,profession,birthday,banned,experience,level,untilNextLevel";
+
+        private final Writer writer;
+
+        CsvRowWriter(OutputStream out) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writer.write(HEADER);
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(Player player) throws IOException {
+            writer.write(String.valueOf(player.getId()));
+            writer.write(',');
+            writer.write(quote(player.getName()));
+            writer.write(',');
+            writer.write(quote(player.getTitle()));
+            writer.write(',');
+            writer.write(value(player.getRace()));
+            writer.write(',');
+            writer.write(value(player.getProfession()));
+            writer.write(',');
+            // birthday is a DATE column; write it as yyyy-MM-dd.
+            writer.write(player.getBirthday() == null ? "" : new Date(player.getBirthday().getTime()).toString());
+            writer.write(',');
+            writer.write(value(player.getBanned()));
+            writer.write(',');
+            writer.write(value(player.getExperience()));
+            writer.write(',');
+            writer.write(value(player.getLevel()));
+            writer.write(',');
+            writer.write(value(player.getUntilNextLevel()));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+
+        private static String value(Object value) {
+            return value == null ? "" : value.toString();
+        }
+
+        // RFC 4180: fields with a comma, quote or line break are quoted, quotes are doubled.
+        private static String quote(String value) {
+            if (value == null) return "";
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+}
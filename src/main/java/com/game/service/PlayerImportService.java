@@ -0,0 +1,108 @@
+package com.game.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.dto.ImportResultDTO;
+import com.game.entity.Player;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class PlayerImportService {
+
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+    private final PlayerService playerService;
+    private final PlayerChangePublisher changePublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxReportedErrors;
+
+    @Autowired
+    public PlayerImportService(ObjectMapper objectMapper, PlayerService playerService, PlayerChangePublisher changePublisher,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${player.import.batch-size:1000}") int batchSize,
+                               @Value("${player.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.objectMapper = objectMapper;
+        this.playerService = playerService;
+        this.changePublisher = changePublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    // Reads a JSON array or newline-delimited JSON objects one record at a time. Every batch is
+    // committed on its own, so a malformed document keeps the players imported before the error.
+    public ImportResultDTO importPlayers(InputStream input) throws IOException {
+        ImportResultDTO result = new ImportResultDTO();
+        List<Player> batch = new ArrayList<>(batchSize);
+        int index = 0;
+        try (MappingIterator<JsonNode> records = objectMapper.readerFor(JsonNode.class).readValues(input)) {
+            while (records.hasNextValue()) {
+                Player player = toPlayer(records.nextValue(), index, result);
+                index++;
+                if (player == null) continue;
+
+                batch.add(player);
+                if (batch.size() == batchSize) {
+                    persist(batch, result);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+        } catch (JsonProcessingException e) {
+            result.reject(index, "Malformed JSON, import stopped: " + e.getOriginalMessage(), maxReportedErrors);
+        }
+        persist(batch, result);
+        return result;
+    }
+
+    private Player toPlayer(JsonNode record, int index, ImportResultDTO result) {
+        Player player;
+        try {
+            player = objectMapper.treeToValue(record, Player.class);
+        } catch (JsonProcessingException e) {
+            result.reject(index, e.getOriginalMessage(), maxReportedErrors);
+            return null;
+        }
+        if (player == null || player.getId() != null || !playerService.isPlayerValid(player)) {
+            result.reject(index, "Invalid player", maxReportedErrors);
+            return null;
+        }
+        if (player.getBanned() == null) {
+            player.setBanned(false);
+        }
+        player.setExperience(player.getExperience());
+        return player;
+    }
+
+    private void persist(List<Player> batch, ImportResultDTO result) {
+        if (batch.isEmpty()) return;
+        transactionTemplate.executeWithoutResult(status -> {
+            // Imported players are rarely read right away; keep them out of the second-level cache.
+            entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+            batch.forEach(entityManager::persist);
+            entityManager.flush();
+            entityManager.clear();
+        });
+        changePublisher.playersImported(batch);
+        result.addImported(batch.size());
+    }
+}
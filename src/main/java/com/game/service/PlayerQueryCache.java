@@ -0,0 +1,112 @@
+package com.game.service;
+
+import com.game.controller.PlayerOrder;
+import com.game.dto.FilterDTO;
+import com.game.entity.Player;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+// Caches id lists of GET /rest/players pages and /count results by the normalized filter tuple.
+// Every key carries the table generation, which is bumped on each committed write, so an entry
+// computed against an older table state can never be read again.
+@Component
+@Order(PlayerChangeListener.QUERY_CACHE_ORDER)
+public class PlayerQueryCache implements PlayerChangeListener {
+
+    private final boolean enabled;
+    private final AtomicLong generation = new AtomicLong();
+    private final Cache<List<Object>, List<Long>> pages;
+    private final Cache<List<Object>, Long> counts;
+
+    @Autowired
+    public PlayerQueryCache(@Value("${player.query-cache.enabled:true}") boolean enabled,
+                            @Value("${player.query-cache.maximum-size:10000}") long maximumSize,
+                            @Value("${player.query-cache.ttl-seconds:300}") long ttlSeconds,
+                            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, "player-pages");
+        CaffeineCacheMetrics.monitor(meterRegistry, counts, "player-counts");
+    }
+
+    public List<Player> page(FilterDTO filter, PlayerOrder order, int pageNumber, int pageSize,
+                             Supplier<List<Player>> query, Function<List<Long>, List<Player>> loader) {
+        if (!enabled) return query.get();
+        List<Object> key = key(filter, order, pageNumber, pageSize, filter.getCursor());
+        List<Long> ids = pages.getIfPresent(key);
+        if (ids != null) {
+            return loader.apply(ids);
+        }
+        List<Player> players = query.get();
+        pages.put(key, players.stream().map(Player::getId).collect(Collectors.toList()));
+        return players;
+    }
+
+    public long count(FilterDTO filter, LongSupplier query) {
+        if (!enabled) return query.getAsLong();
+        return counts.get(key(filter, null, 0, 0, null), key -> query.getAsLong());
+    }
+
+    public CacheStats pageStats() {
+        return pages.stats();
+    }
+
+    public CacheStats countStats() {
+        return counts.stats();
+    }
+
+    @Override
+    public void playersChanged(Collection<Player> players) {
+        invalidate();
+    }
+
+    @Override
+    public void playersDeleted(Collection<Long> ids) {
+        invalidate();
+    }
+
+    @Override
+    public void playersReloaded() {
+        invalidate();
+    }
+
+    private void invalidate() {
+        generation.incrementAndGet();
+        pages.invalidateAll();
+        counts.invalidateAll();
+    }
+
+    private List<Object> key(FilterDTO filter, PlayerOrder order, int pageNumber, int pageSize, String cursor) {
+        return Arrays.asList(generation.get(),
+                filter.getName(), filter.getTitle(), filter.getRace(), filter.getProfession(),
+                filter.getAfter(), filter.getBefore(), filter.getBanned(),
+                filter.getMinExperience(), filter.getMaxExperience(), filter.getMinLevel(), filter.getMaxLevel(),
+                order, pageNumber, pageSize, cursor);
+    }
+}
@@ -0,0 +1,52 @@
+package com.game.service;
+
+import com.game.entity.Player;
+import com.game.repository.PlayerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+// Full-table scan for the in-memory indexes that listen to player changes. Depends on the
+// repository only, so listeners can use it without a cycle through PlayerChangePublisher.
+@Component
+public class PlayerScanner {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final PlayerRepository playerRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int fetchSize;
+
+    @Autowired
+    public PlayerScanner(PlayerRepository playerRepository, PlatformTransactionManager transactionManager,
+                         @Value("${player.scan.fetch-size:1000}") int fetchSize) {
+        this.playerRepository = playerRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.fetchSize = fetchSize;
+    }
+
+    // Every player in id order; each one is detached after the action, so do not keep the instances.
+    public void forEach(Consumer<Player> action) {
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Player> players = playerRepository.stream(null, Sort.by("id"), fetchSize)) {
+                Iterator<Player> iterator = players.iterator();
+                while (iterator.hasNext()) {
+                    Player player = iterator.next();
+                    action.accept(player);
+                    entityManager.detach(player);
+                }
+            }
+        });
+    }
+}
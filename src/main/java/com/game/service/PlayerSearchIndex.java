@@ -0,0 +1,272 @@
+package com.game.service;
+
+import com.game.entity.Player;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+// Trigram index over name and title for the substring filters of GET /rest/players and /count.
+// A term of three or more characters is looked up as the intersection of the posting lists of its
+// trigrams; the candidates are then checked with String.contains against the indexed values, so
+// the answer is exactly the players whose name/title contain the term, case-sensitive like the LIKE.
+// Built at startup and after every reload; until a build finishes queries fall back to LIKE.
+@Component
+@Order(PlayerChangeListener.SEARCH_INDEX_ORDER)
+public class PlayerSearchIndex implements PlayerChangeListener, SmartInitializingSingleton, DisposableBean {
+
+    private static final int GRAM = 3;
+    // Recorded for a deleted id, which no later event can bring back.
+    private static final long DELETED = Long.MAX_VALUE;
+
+    private final PlayerScanner playerScanner;
+    private final boolean enabled;
+    private final int maxMatches;
+    private final ExecutorService builder;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Index index;
+    // Events that arrive while a build is running, replayed on the new index once it is complete.
+    private List<Consumer<Index>> missed;
+    private long builds;
+
+    @Autowired
+    public PlayerSearchIndex(PlayerScanner playerScanner,
+                             @Value("${player.search-index.enabled:true}") boolean enabled,
+                             @Value("${player.search-index.async-build:true}") boolean asyncBuild,
+                             @Value("${player.search-index.max-matches:1000}") int maxMatches) {
+        this.playerScanner = playerScanner;
+        this.enabled = enabled;
+        this.maxMatches = maxMatches;
+        this.builder = asyncBuild ? Executors.newSingleThreadExecutor(new CustomizableThreadFactory("search-index-")) : null;
+    }
+
+    // Ids, ascending, of the players whose name and title contain the given terms (null means no
+    // condition). Null when the index cannot help: not built, no term of at least three characters,
+    // or more than max-matches players match, in which case the database scan stops early anyway.
+    public List<Long> find(String name, String title) {
+        if (!enabled || !indexable(name) && !indexable(title)) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            if (index == null) {
+                return null;
+            }
+            List<Postings> lists = new ArrayList<>();
+            if (indexable(name) && !index.names.collect(name, lists)) return new ArrayList<>();
+            if (indexable(title) && !index.titles.collect(title, lists)) return new ArrayList<>();
+            lists.sort(Comparator.comparingInt(postings -> postings.size));
+
+            long[] candidates = Arrays.copyOf(lists.get(0).ids, lists.get(0).size);
+            int count = candidates.length;
+            for (int i = 1; i < lists.size() && count > 0; i++) {
+                count = lists.get(i).retain(candidates, count);
+            }
+
+            List<Long> matches = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                String[] values = index.values.get(candidates[i]);
+                if ((name == null || values[0].contains(name)) && (title == null || values[1].contains(title))) {
+                    if (matches.size() == maxMatches) return null;
+                    matches.add(candidates[i]);
+                }
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    @Override
+    public void playersChanged(Collection<Player> players) {
+        apply(index -> players.forEach(index::put));
+    }
+
+    @Override
+    public void playersDeleted(Collection<Long> ids) {
+        apply(index -> ids.forEach(index::delete));
+    }
+
+    @Override
+    public void playersReloaded() {
+        rebuild();
+    }
+
+    @Override
+    public void destroy() {
+        if (builder != null) builder.shutdownNow();
+    }
+
+    private void apply(Consumer<Index> event) {
+        lock.writeLock().lock();
+        try {
+            if (missed != null) missed.add(event);
+            if (index != null) event.accept(index);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void rebuild() {
+        if (!enabled) return;
+        long build;
+        lock.writeLock().lock();
+        try {
+            index = null;
+            missed = new ArrayList<>();
+            build = ++builds;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Runnable task = () -> {
+            Index built = new Index();
+            playerScanner.forEach(built::put);
+            lock.writeLock().lock();
+            try {
+                if (build != builds) return;
+                missed.forEach(event -> event.accept(built));
+                missed = null;
+                index = built;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        };
+        if (builder != null) builder.execute(task);
+        else task.run();
+    }
+
+    private static boolean indexable(String term) {
+        return term != null && term.length() >= GRAM;
+    }
+
+    private static long gram(String value, int start) {
+        return (long) value.charAt(start) << 32 | (long) value.charAt(start + 1) << 16 | value.charAt(start + 2);
+    }
+
+    private static final class Index {
+        final Map<Long, String[]> values = new HashMap<>();
+        // Last version applied per id; listeners of concurrent commits run in any order, and the
+        // events replayed after a build may be older than what the scan read.
+        final Map<Long, Long> versions = new HashMap<>();
+        final Grams names = new Grams();
+        final Grams titles = new Grams();
+
+        void put(Player player) {
+            Long applied = versions.get(player.getId());
+            if (applied != null && applied > player.getVersion()) return;
+            versions.put(player.getId(), player.getVersion());
+            remove(player.getId());
+            String name = player.getName() == null ? "" : player.getName();
+            String title = player.getTitle() == null ? "" : player.getTitle();
+            values.put(player.getId(), new String[]{name, title});
+            names.add(name, player.getId());
+            titles.add(title, player.getId());
+        }
+
+        void delete(Long id) {
+            remove(id);
+            versions.put(id, DELETED);
+        }
+
+        void remove(Long id) {
+            String[] old = values.remove(id);
+            if (old == null) return;
+            names.remove(old[0], id);
+            titles.remove(old[1], id);
+        }
+    }
+
+    private static final class Grams {
+        final Map<Long, Postings> postings = new HashMap<>();
+
+        void add(String value, long id) {
+            for (int i = 0; i + GRAM <= value.length(); i++) {
+                postings.computeIfAbsent(gram(value, i), key -> new Postings()).add(id);
+            }
+        }
+
+        void remove(String value, long id) {
+            for (int i = 0; i + GRAM <= value.length(); i++) {
+                long gram = gram(value, i);
+                Postings list = postings.get(gram);
+                if (list != null && list.remove(id)) {
+                    postings.remove(gram);
+                }
+            }
+        }
+
+        // Adds the posting list of every trigram of the term; false if one of them has no players.
+        boolean collect(String term, List<Postings> lists) {
+            for (int i = 0; i + GRAM <= term.length(); i++) {
+                Postings list = postings.get(gram(term, i));
+                if (list == null) return false;
+                lists.add(list);
+            }
+            return true;
+        }
+    }
+
+    // Sorted ids without duplicates.
+    private static final class Postings {
+        long[] ids = new long[2];
+        int size;
+
+        void add(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) return;
+            position = -position - 1;
+            if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+
+        // Returns true when the list became empty.
+        boolean remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+                size--;
+            }
+            return size == 0;
+        }
+
+        // Keeps the first count candidates that are in this list, compacted to the front.
+        int retain(long[] candidates, int count) {
+            int kept = 0;
+            int from = 0;
+            for (int i = 0; i < count; i++) {
+                int position = Arrays.binarySearch(ids, from, size, candidates[i]);
+                if (position >= 0) {
+                    candidates[kept++] = candidates[i];
+                    from = position + 1;
+                } else {
+                    from = -position - 1;
+                }
+            }
+            return kept;
+        }
+    }
+}
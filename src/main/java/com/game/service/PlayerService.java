@@ -1,113 +1,201 @@
 package com.game.service;
 
 import com.game.controller.PlayerOrder;
+import com.game.dto.FilterDTO;
+import com.game.dto.PlayerCursor;
 import com.game.dto.PlayerDTO;
+import com.game.entity.LevelCurve;
 import com.game.entity.Player;
-import com.game.entity.Profession;
-import com.game.entity.Race;
+import com.game.exception.ConflictException;
 import com.game.exception.InvalidIdException;
 import com.game.exception.NoSuchPlayerException;
 import com.game.exception.ValidationException;
 import com.game.repository.PlayerRepository;
+import com.game.repository.PlayerSpecifications;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class PlayerService {
 
+    private static final int DEFAULT_PAGE_SIZE = 3;
+
     private final PlayerRepository playerRepository;
+    private final PlayerCache playerCache;
+    private final PlayerQueryCache queryCache;
+    private final PlayerChangePublisher changePublisher;
+    private final PlayerSearchIndex searchIndex;
+    private final PlayerSnapshot snapshot;
+    private final int maxBulkIds;
+    private final int maxBulkPublished;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean retryOnConflict;
+    private final Counter updatesRetried;
+    private final Counter updatesRejected;
 
     @Autowired
-    public PlayerService(PlayerRepository playerRepository) {
+    public PlayerService(PlayerRepository playerRepository, PlayerCache playerCache, PlayerQueryCache queryCache,
+                         PlayerChangePublisher changePublisher, PlayerSearchIndex searchIndex, PlayerSnapshot snapshot,
+                         PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                         @Value("${player.bulk.max-ids:10000}") int maxBulkIds,
+                         @Value("${player.bulk.max-published:10000}") int maxBulkPublished,
+                         @Value("${player.update.retry-on-conflict:true}") boolean retryOnConflict) {
         this.playerRepository = playerRepository;
+        this.playerCache = playerCache;
+        this.queryCache = queryCache;
+        this.changePublisher = changePublisher;
+        this.searchIndex = searchIndex;
+        this.snapshot = snapshot;
+        this.maxBulkIds = maxBulkIds;
+        this.maxBulkPublished = maxBulkPublished;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retryOnConflict = retryOnConflict;
+        this.updatesRetried = meterRegistry.counter("player.update.conflicts", "outcome", "retried");
+        this.updatesRejected = meterRegistry.counter("player.update.conflicts", "outcome", "rejected");
     }
 
-    public List<Player> findAll(String name,
-                                String title,
-                                Race race,
-                                Profession profession,
-                                Long after,
-                                Long before,
-                                Boolean banned,
-                                Integer minExperience,
-                                Integer maxExperience,
-                                Integer minLevel,
-                                Integer maxLevel) {
-        Date afterDate = after == null ? null : new Date(after);
-        Date beforeDate = before == null ? null : new Date(before);
-        List<Player> list = new ArrayList<>();
-        playerRepository.findAll().forEach((player) -> {
-            if (name != null && !player.getName().contains(name)) return;
-            if (title != null && !player.getTitle().contains(title)) return;
-            if (race != null && player.getRace() != race) return;
-            if (profession != null && player.getProfession() != profession) return;
-            if (afterDate != null && player.getBirthday().before(afterDate)) return;
-            if (beforeDate != null && player.getBirthday().after(beforeDate)) return;
-            if (banned != null && player.getBanned().booleanValue() != banned.booleanValue()) return;
-            if (minExperience != null && player.getExperience().compareTo(minExperience) < 0) return;
-            if (maxExperience != null && player.getExperience().compareTo(maxExperience) > 0) return;
-            if (minLevel != null && player.getLevel().compareTo(minLevel) < 0) return;
-            if (maxLevel != null && player.getLevel().compareTo(maxLevel) > 0) return;
-
-            list.add(player);
-        });
-        return list;
-    }
-
-    public List<Player> sortPlayers(List<Player> players, PlayerOrder order) {
-        if (order != null) {
-            players.sort((player1, player2) -> {
-                switch (order) {
-                    case ID:
-                        return player1.getId().compareTo(player2.getId());
-                    case NAME:
-                        return player1.getName().compareTo(player2.getName());
-                    case LEVEL:
-                        return player1.getLevel().compareTo(player2.getLevel());
-                    case BIRTHDAY:
-                        return player1.getBirthday().compareTo(player2.getBirthday());
-                    case EXPERIENCE:
-                        return player1.getExperience().compareTo(player2.getExperience());
-                    default:
-                        return 0;
+    @Transactional(readOnly = true)
+    public long count(FilterDTO filter) {
+        return queryCache.count(filter, () -> snapshot.isEnabled() ? snapshot.count(filter) : playerRepository.count(byFilter(filter)));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Player> findPage(FilterDTO filter) {
+        int pageSize = pageSize(filter);
+        PlayerOrder order = order(filter);
+        PlayerCursor cursor = null;
+        int pageNumber = 0;
+
+        if (filter.getCursor() != null) {
+            if (!filter.getCursor().isEmpty()) {
+                cursor = PlayerCursor.decode(filter.getCursor());
+                if (cursor.getOrder() != order) {
+                    throw new ValidationException();
                 }
-            });
+            }
+        } else if (filter.getPageNumber() != null) {
+            pageNumber = filter.getPageNumber();
+            if (pageNumber < 0) {
+                throw new ValidationException();
+            }
+        }
+
+        PlayerCursor after = cursor;
+        int number = pageNumber;
+        return queryCache.page(filter, order, pageNumber, pageSize,
+                () -> query(filter, order, after, number, pageSize), this::findAllById);
+    }
+
+    private List<Player> query(FilterDTO filter, PlayerOrder order, PlayerCursor cursor, int pageNumber, int pageSize) {
+        if (snapshot.isEnabled()) {
+            int offset = (int) Math.min(Integer.MAX_VALUE, (long) pageNumber * pageSize);
+            return findAllById(snapshot.page(filter, order, cursor, offset, pageSize));
+        }
+        Specification<Player> spec = byFilter(filter).and(PlayerSpecifications.seekAfter(cursor));
+        Pageable pageable = PageRequest.of(pageNumber, pageSize, sortBy(order));
+        return playerRepository.findPage(spec, pageable);
+    }
+
+    // The LIKE conditions stay in the query; when the search index resolves the name/title terms
+    // the exact matching ids are added, so the database reads them by primary key.
+    private Specification<Player> byFilter(FilterDTO filter) {
+        return PlayerSpecifications.byFilter(filter)
+                .and(PlayerSpecifications.idIn(searchIndex.find(filter.getName(), filter.getTitle())));
+    }
+
+    public String nextCursor(FilterDTO filter, List<Player> page) {
+        if (filter.getCursor() == null || page.size() < pageSize(filter)) {
+            return null;
         }
-        return players;
+        return PlayerCursor.after(page.get(page.size() - 1), order(filter)).encode();
     }
 
-    public List<Player> getPage(List<Player> players, Integer pageNumber, Integer pageSize) {
-        Integer page = pageNumber == null ? 0 : pageNumber;
-        Integer size = pageSize == null ? 3 : pageSize;
-        int from = page * size;
-        int to = from + size;
-        if (to > players.size()) to = players.size();
-        return players.subList(from, to);
+    // Keeps the order of ids; players deleted in the meantime are skipped.
+    @Transactional(readOnly = true)
+    public List<Player> findAllById(List<Long> ids) {
+        Map<Long, Player> players = playerCache.getAll(ids, missing -> {
+            List<Long> missingIds = new ArrayList<>();
+            missing.forEach(missingIds::add);
+            return playerRepository.findAllById(missingIds).stream()
+                    .collect(Collectors.toMap(Player::getId, Function.identity()));
+        });
+        return ids.stream().map(players::get).filter(Objects::nonNull).collect(Collectors.toList());
     }
 
     public Player findOne(Long id) {
-        Optional<Player> foundPLayer = playerRepository.findById(id);
-        return foundPLayer.orElse(null);
+        return playerCache.get(id, key -> playerRepository.findById(key).orElse(null));
     }
 
     @Transactional
     public ResponseEntity<Player> save(Player player) {
         player.setExperience(player.getExperience());
         playerRepository.save(player);
+        changePublisher.playerChanged(player);
         return new ResponseEntity<>(HttpStatus.OK);
     }
 
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Player update(PlayerDTO playerDTO, Long id) {
-        Player player = findOne(id);
+        return update(playerDTO, id, null);
+    }
+
+    // Optimistic first: the UPDATE is checked against the version read, usually from the second-level
+    // cache. With an expected version (If-Match) the client has read the player itself, so any other
+    // write in between is a conflict. Without one the patch only sets absolute values nobody read:
+    // applied to the row as the other writer left it, it gives the same result as if it had arrived
+    // right after it. So with player.update.retry-on-conflict it is retried once, reading the row with
+    // SELECT ... FOR UPDATE, which cannot lose to yet another writer the way a second optimistic try can.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Player update(PlayerDTO playerDTO, Long id, Long expectedVersion) {
+        if (id <= 0) {
+            throw new InvalidIdException();
+        }
+        try {
+            return transactionTemplate.execute(status -> patch(playerDTO, id, expectedVersion, false));
+        } catch (OptimisticLockingFailureException e) {
+            if (expectedVersion != null || !retryOnConflict) {
+                updatesRejected.increment();
+                throw new ConflictException();
+            }
+        }
+        updatesRetried.increment();
+        try {
+            return transactionTemplate.execute(status -> patch(playerDTO, id, null, true));
+        } catch (PessimisticLockingFailureException e) {
+            updatesRejected.increment();
+            throw new ConflictException();
+        }
+    }
+
+    private Player patch(PlayerDTO playerDTO, Long id, Long expectedVersion, boolean lock) {
+        // Load a fresh managed copy: the cached instance is shared and must stay untouched if validation fails.
+        Player player = (lock ? playerRepository.findByIdForUpdate(id) : playerRepository.findById(id))
+                .orElseThrow(NoSuchPlayerException::new);
+        if (expectedVersion != null && player.getVersion() != expectedVersion) {
+            throw new ConflictException();
+        }
 
         if (playerDTO.getName() != null && isNameLenValid(playerDTO)) {
             player.setName(playerDTO.getName());
@@ -135,23 +223,109 @@ public class PlayerService {
             validateExperience(playerDTO);
             player.setExperience(playerDTO.getExperience());
         }
-        return playerRepository.saveAndFlush(player);
+        // Flushed on commit: an UPDATE of the changed columns only, none at all if nothing changed.
+        // A concurrent write makes it fail with an OptimisticLockingFailureException.
+        changePublisher.playerChanged(player);
+        return player;
     }
 
     @Transactional
     public ResponseEntity<Player> delete(Long id) {
         if (id == 0) return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
-        if (id < 0 || id > playerRepository.findAll().size()) return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-        Optional<Player> foundPLayer = playerRepository.findById(id);
-        if (!foundPLayer.isPresent()) return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-        playerRepository.deleteById(id);
+        if (id < 0 || playerRepository.deleteIfExists(id) == 0) return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        changePublisher.playerDeleted(id);
         return new ResponseEntity<>(HttpStatus.OK);
     }
 
+    // One set-based UPDATE over the players matching the filter and, if given, the id list. The
+    // updated players are re-read for the listeners; only a filter matching more than
+    // player.bulk.max-published players makes them reload everything instead.
+    @Transactional
+    public int bulkUpdate(FilterDTO filter, List<Long> ids, PlayerDTO patch) {
+        return bulkUpdate(bulkTarget(filter, ids), ids, patchValues(patch));
+    }
+
+    // Only players whose flag actually changes are updated and counted.
+    @Transactional
+    public int setBanned(FilterDTO filter, List<Long> ids, boolean banned) {
+        Specification<Player> target = bulkTarget(filter, ids).and(PlayerSpecifications.bannedIsNot(banned));
+        return bulkUpdate(target, ids, Collections.singletonMap("banned", banned));
+    }
+
+    private int bulkUpdate(Specification<Player> target, List<Long> ids, Map<String, Object> values) {
+        if (ids == null) {
+            List<Long> matching = playerRepository.findIds(target, maxBulkPublished + 1);
+            if (matching.size() > maxBulkPublished) {
+                int updated = playerRepository.updateAll(target, values);
+                changePublisher.playersReloaded();
+                return updated;
+            }
+            if (matching.isEmpty()) {
+                return 0;
+            }
+            // Only the selected rows: a player matching by now was not matching when the update was decided.
+            target = target.and(PlayerSpecifications.idIn(matching));
+            ids = matching;
+        }
+        int updated = playerRepository.updateAll(target, values);
+        changePublisher.playersChanged(playerRepository.findAllById(ids));
+        return updated;
+    }
+
+    private Specification<Player> bulkTarget(FilterDTO filter, List<Long> ids) {
+        if (ids == null && !filter.hasCriteria()) {
+            throw new ValidationException();
+        }
+        if (ids != null && (ids.isEmpty() || ids.size() > maxBulkIds)) {
+            throw new ValidationException();
+        }
+        return PlayerSpecifications.byFilter(filter).and(PlayerSpecifications.idIn(ids));
+    }
+
+    // Same rules as update(), except that an invalid name or title is rejected instead of skipped.
+    private Map<String, Object> patchValues(PlayerDTO patch) {
+        if (patch == null) {
+            throw new ValidationException();
+        }
+        Map<String, Object> values = new LinkedHashMap<>();
+        if (patch.getName() != null) {
+            if (!isNameLenValid(patch)) throw new ValidationException();
+            values.put("name", patch.getName());
+        }
+        if (patch.getTitle() != null) {
+            if (!isTitleLenValid(patch)) throw new ValidationException();
+            values.put("title", patch.getTitle());
+        }
+        if (patch.getRace() != null) {
+            values.put("race", patch.getRace());
+        }
+        if (patch.getProfession() != null) {
+            values.put("profession", patch.getProfession());
+        }
+        if (patch.getBirthday() != null) {
+            validateBirthday(patch);
+            values.put("birthday", new Date(patch.getBirthday()));
+        }
+        if (patch.getBanned() != null) {
+            values.put("banned", patch.getBanned());
+        }
+        if (patch.getExperience() != null) {
+            validateExperience(patch);
+            // The patch sets an absolute experience, so level and untilNextLevel are the same for every row.
+            values.put("experience", patch.getExperience());
+            values.put("level", LevelCurve.level(patch.getExperience()));
+            values.put("untilNextLevel", LevelCurve.untilNextLevel(patch.getExperience()));
+        }
+        if (values.isEmpty()) {
+            throw new ValidationException();
+        }
+        return values;
+    }
+
     public boolean isPlayerValid(Player player) {
         return (player != null) && (player.getName() != null) && (player.getTitle() != null) && (!player.getName().isEmpty()) && (player.getName().length() > 0) &&
                 (!player.getTitle().isEmpty()) && (player.getName().length() < 13) && (player.getTitle().length() > 0) && (player.getTitle().length() < 31) &&
-                (player.getExperience() <= 10000000) && (player.getExperience() >= 0) && (player.getBirthday() != null) && (player.getBirthday().getTime() > 0);
+                (player.getExperience() != null) && LevelCurve.isValidExperience(player.getExperience()) && (player.getBirthday() != null) && (player.getBirthday().getTime() > 0);
     }
 
     boolean isBirthdayValid(PlayerDTO playerDTO) {
@@ -165,10 +339,12 @@ public class PlayerService {
         return date.getTime() >= 0 && (year >= 2000 && year <= 3000);
     }
 
+    // A cached player needs no query; otherwise one existence check on the primary key, without
+    // loading the row.
     public void validateId(Long id) {
         if (id <= 0) {
             throw new InvalidIdException();
-        } else if (id > playerRepository.count() || !playerRepository.findById(id).isPresent()) {
+        } else if (playerCache.getIfPresent(id) == null && !playerRepository.existsById(id)) {
             throw new NoSuchPlayerException();
         }
     }
@@ -196,6 +372,24 @@ public class PlayerService {
     }
 
     boolean isExperienceValid(PlayerDTO playerDTO) {
-        return playerDTO.getExperience() >= 0 && playerDTO.getExperience() <= 10000000;
+        return LevelCurve.isValidExperience(playerDTO.getExperience());
+    }
+
+    private static int pageSize(FilterDTO filter) {
+        int pageSize = filter.getPageSize() == null ? DEFAULT_PAGE_SIZE : filter.getPageSize();
+        if (pageSize < 1) {
+            throw new ValidationException();
+        }
+        return pageSize;
+    }
+
+    static PlayerOrder order(FilterDTO filter) {
+        return filter.getOrder() == null ? PlayerOrder.ID : filter.getOrder();
+    }
+
+    // Ties are broken by id so pages are stable and match the old in-memory stable sort.
+    static Sort sortBy(PlayerOrder order) {
+        Sort sort = Sort.by(order.getFieldName());
+        return order == PlayerOrder.ID ? sort : sort.and(Sort.by(PlayerOrder.ID.getFieldName()));
     }
 }
@@ -0,0 +1,142 @@
+package com.game.service;
+
+import com.game.controller.PlayerOrder;
+import com.game.dto.FilterDTO;
+import com.game.dto.PlayerCursor;
+import com.game.entity.Player;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Columnar copy of the player table that answers the GET /rest/players and /count queries in memory
+// when player.snapshot.enabled is set. Loaded on first use and kept current from the change events.
+@Component
+@Order(PlayerChangeListener.SNAPSHOT_ORDER)
+public class PlayerSnapshot implements PlayerChangeListener {
+
+    // Recorded for a deleted id, which no later event can bring back.
+    private static final long DELETED = Long.MAX_VALUE;
+
+    private final PlayerScanner playerScanner;
+    private final boolean enabled;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private PlayerColumns columns;
+    // Last version applied per id; listeners of concurrent commits run in any order.
+    private final Map<Long, Long> versions = new HashMap<>();
+
+    @Autowired
+    public PlayerSnapshot(PlayerScanner playerScanner, @Value("${player.snapshot.enabled:false}") boolean enabled) {
+        this.playerScanner = playerScanner;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long count(FilterDTO filter) {
+        PlayerColumns loaded = ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return loaded.count(filter);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Ids of the page, in order; the cursor, if any, is where the previous page ended.
+    public List<Long> page(FilterDTO filter, PlayerOrder order, PlayerCursor cursor, int offset, int limit) {
+        PlayerColumns loaded = ensureLoaded();
+        long[] ids;
+        lock.readLock().lock();
+        try {
+            ids = loaded.page(filter, order, cursor, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Long> page = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            page.add(id);
+        }
+        return page;
+    }
+
+    @Override
+    public void playersChanged(Collection<Player> players) {
+        lock.writeLock().lock();
+        try {
+            if (columns == null) return;
+            for (Player player : players) {
+                if (newer(player)) columns.put(player);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void playersDeleted(Collection<Long> ids) {
+        lock.writeLock().lock();
+        try {
+            if (columns == null) return;
+            for (Long id : ids) {
+                columns.remove(id);
+                versions.put(id, DELETED);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void playersReloaded() {
+        lock.writeLock().lock();
+        try {
+            columns = null;
+            versions.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Events arriving during the load wait for the write lock and are applied on top of the scan,
+    // unless the scan already read the same or a newer version.
+    // A query that races with a reload finishes on the columns it started with.
+    private PlayerColumns ensureLoaded() {
+        lock.readLock().lock();
+        try {
+            if (columns != null) return columns;
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            if (columns == null) {
+                versions.clear();
+                columns = PlayerColumns.load(put -> playerScanner.forEach(player -> {
+                    versions.put(player.getId(), player.getVersion());
+                    put.accept(player);
+                }));
+            }
+            return columns;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean newer(Player player) {
+        Long applied = versions.get(player.getId());
+        if (applied != null && applied > player.getVersion()) return false;
+        versions.put(player.getId(), player.getVersion());
+        return true;
+    }
+}
@@ -0,0 +1,161 @@
+package com.game.service;
+
+import com.game.dto.StatsDTO;
+import com.game.entity.LevelCurve;
+import com.game.entity.Player;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+// Player counts by race x profession, banned and level, kept up to date from the change events.
+// For every player the counted attributes are remembered as one packed int, so an update or delete
+// can take the old values back out. Loaded from the table on first use and again after a reload.
+@Component
+public class PlayerStatistics implements PlayerChangeListener {
+
+    private static final Race[] RACES = Race.values();
+    private static final Profession[] PROFESSIONS = Profession.values();
+
+    // Packed state: bits 0-3 race ordinal + 1, 4-7 profession ordinal + 1, bits 9 and up level + 1
+    // (0 for none), bit 8 banned.
+    private static final int PROFESSION_SHIFT = 4;
+    private static final int BANNED_BIT = 1 << 8;
+    private static final int LEVEL_SHIFT = 9;
+    private static final int NIBBLE = 0xF;
+    // Recorded for a deleted id, which no later event can bring back.
+    private static final long DELETED = Long.MAX_VALUE;
+
+    private final PlayerScanner playerScanner;
+    private final Map<Long, Integer> states = new HashMap<>();
+    // Last version applied per id; listeners of concurrent commits run in any order.
+    private final Map<Long, Long> versions = new HashMap<>();
+    // [race ordinal + 1][profession ordinal + 1], row and column 0 for players without one
+    private final int[][] raceProfession = new int[RACES.length + 1][PROFESSIONS.length + 1];
+    // [level + 1], 0 for players without a level, which no level count includes
+    private final int[] levels = new int[LevelCurve.MAX_LEVEL + 2];
+    private int total;
+    private int banned;
+    private boolean loaded;
+
+    @Autowired
+    public PlayerStatistics(PlayerScanner playerScanner) {
+        this.playerScanner = playerScanner;
+    }
+
+    public synchronized StatsDTO stats() {
+        if (!loaded) {
+            load();
+        }
+        return snapshot();
+    }
+
+    // Rebuilds every counter from the table, e.g. to reconcile after writes made outside the service.
+    public synchronized StatsDTO recompute() {
+        load();
+        return snapshot();
+    }
+
+    @Override
+    public synchronized void playersChanged(Collection<Player> players) {
+        if (!loaded) return;
+        players.forEach(this::put);
+    }
+
+    @Override
+    public synchronized void playersDeleted(Collection<Long> ids) {
+        if (!loaded) return;
+        for (Long id : ids) {
+            versions.put(id, DELETED);
+            Integer state = states.remove(id);
+            if (state != null) count(state, -1);
+        }
+    }
+
+    @Override
+    public synchronized void playersReloaded() {
+        loaded = false;
+        states.clear();
+        versions.clear();
+    }
+
+    private void load() {
+        states.clear();
+        versions.clear();
+        for (int[] row : raceProfession) {
+            Arrays.fill(row, 0);
+        }
+        Arrays.fill(levels, 0);
+        total = 0;
+        banned = 0;
+        playerScanner.forEach(this::put);
+        loaded = true;
+    }
+
+    private void put(Player player) {
+        Long applied = versions.get(player.getId());
+        if (applied != null && applied > player.getVersion()) return;
+        versions.put(player.getId(), player.getVersion());
+        int state = pack(player);
+        Integer previous = states.put(player.getId(), state);
+        if (previous != null) count(previous, -1);
+        count(state, 1);
+    }
+
+    private void count(int state, int delta) {
+        raceProfession[state & NIBBLE][(state >>> PROFESSION_SHIFT) & NIBBLE] += delta;
+        levels[state >>> LEVEL_SHIFT] += delta;
+        total += delta;
+        if ((state & BANNED_BIT) != 0) banned += delta;
+    }
+
+    private static int pack(Player player) {
+        int race = player.getRace() == null ? 0 : player.getRace().ordinal() + 1;
+        int profession = player.getProfession() == null ? 0 : player.getProfession().ordinal() + 1;
+        int bannedBit = Boolean.TRUE.equals(player.getBanned()) ? BANNED_BIT : 0;
+        int level = player.getLevel() == null ? 0 : player.getLevel() + 1;
+        return race | profession << PROFESSION_SHIFT | bannedBit | level << LEVEL_SHIFT;
+    }
+
+    private StatsDTO snapshot() {
+        Map<Race, Integer> byRace = new EnumMap<>(Race.class);
+        Map<Profession, Integer> byProfession = new EnumMap<>(Profession.class);
+        Map<Race, Map<Profession, Integer>> byRaceProfession = new EnumMap<>(Race.class);
+        for (Race race : RACES) {
+            byRace.put(race, 0);
+            byRaceProfession.put(race, new EnumMap<>(Profession.class));
+        }
+        for (Profession profession : PROFESSIONS) {
+            byProfession.put(profession, 0);
+        }
+        for (int r = 0; r <= RACES.length; r++) {
+            for (int p = 0; p <= PROFESSIONS.length; p++) {
+                int count = raceProfession[r][p];
+                if (r > 0) byRace.merge(RACES[r - 1], count, Integer::sum);
+                if (p > 0) byProfession.merge(PROFESSIONS[p - 1], count, Integer::sum);
+                if (r > 0 && p > 0) byRaceProfession.get(RACES[r - 1]).put(PROFESSIONS[p - 1], count);
+            }
+        }
+
+        int highestLevel = levels.length - 1;
+        while (highestLevel > 0 && levels[highestLevel] == 0) {
+            highestLevel--;
+        }
+
+        StatsDTO stats = new StatsDTO();
+        stats.setTotal(total);
+        stats.setBanned(banned);
+        stats.setBannedRatio(total == 0 ? 0 : (double) banned / total);
+        stats.setByRace(byRace);
+        stats.setByProfession(byProfession);
+        stats.setByRaceProfession(byRaceProfession);
+        stats.setLevels(Arrays.copyOfRange(levels, 1, highestLevel + 1));
+        return stats;
+    }
+}
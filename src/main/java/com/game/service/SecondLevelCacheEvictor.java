@@ -0,0 +1,27 @@
+package com.game.service;
+
+import com.game.entity.Player;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+
+// Writes made through the EntityManager keep the Hibernate regions consistent by themselves;
+// only a reload means the table was rewritten behind Hibernate's back.
+@Component
+public class SecondLevelCacheEvictor implements PlayerChangeListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    public SecondLevelCacheEvictor(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public void playersReloaded() {
+        entityManagerFactory.getCache().evict(Player.class);
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+    }
+}
@@ -0,0 +1,20 @@
+-- name/title use a binary collation so LIKE '%x%' is case-sensitive like String.contains
+-- and ORDER BY name follows String.compareTo. race/profession become one-byte ENUMs
+-- declared in the same order as the Java enums.
+ALTER TABLE player
+    MODIFY name       VARCHAR(12) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin NULL,
+    MODIFY title      VARCHAR(30) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin NULL,
+    MODIFY race       ENUM ('HUMAN', 'DWARF', 'ELF', 'GIANT', 'ORC', 'TROLL', 'HOBBIT') NULL,
+    MODIFY profession ENUM ('WARRIOR', 'ROGUE', 'SORCERER', 'CLERIC', 'PALADIN', 'NAZGUL', 'WARLOCK', 'DRUID') NULL;
+
+-- One index per PlayerOrder column. InnoDB appends the primary key to every secondary
+-- index, so each one is really (column, id): it serves ORDER BY column, id LIMIT n,
+-- the keyset seek (column, id) > (k, lastId) and range filters on the column.
+CREATE INDEX idx_player_name ON player (name);
+CREATE INDEX idx_player_experience ON player (experience);
+CREATE INDEX idx_player_level ON player (level);
+CREATE INDEX idx_player_birthday ON player (birthday);
+
+-- race/profession equality filters with an experience range or order; covers COUNT(*) for them.
+CREATE INDEX idx_player_race_profession_experience ON player (race, profession, experience);
+CREATE INDEX idx_player_profession_experience ON player (profession, experience);
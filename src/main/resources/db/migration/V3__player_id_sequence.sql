@@ -0,0 +1,14 @@
+-- Player ids come from a table-backed Hibernate sequence (pooled-lo optimizer) instead of
+-- AUTO_INCREMENT, so inserts can be sent in JDBC batches. next_val is the next free id.
+CREATE TABLE player_seq
+(
+    next_val BIGINT(20) NOT NULL
+)
+    ENGINE = InnoDB;
+
+INSERT INTO player_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 1
+FROM player;
+
+ALTER TABLE player
+    MODIFY id BIGINT(20) NOT NULL;
@@ -0,0 +1,4 @@
+-- Optimistic lock for player updates. Hibernate checks and increments it on every entity
+-- UPDATE; the bulk and experience UPDATEs increment it as well. Existing rows start at 0.
+ALTER TABLE player
+    ADD COLUMN version BIGINT(20) NOT NULL DEFAULT 0;
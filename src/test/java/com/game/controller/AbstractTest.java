@@ -3,6 +3,8 @@ package com.game.controller;
 import com.game.config.AppConfig;
 import com.game.config.MyWebAppInit;
 import com.game.config.WebConfig;
+import com.game.controller.utils.SqlMatchers;
+import com.game.service.PlayerChangePublisher;
 import org.junit.Before;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,9 +15,12 @@ import org.springframework.test.context.jdbc.SqlConfig;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.test.context.web.WebAppConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+
 @RunWith(SpringJUnit4ClassRunner.class)
 @ActiveProfiles("dev")
 @ContextConfiguration(classes = {AppConfig.class, MyWebAppInit.class, WebConfig.class})
@@ -33,12 +38,26 @@ public abstract class AbstractTest {
 
     @Before
     public void setup() {
+        // test.sql has just rewritten the player table behind the service's back.
+        context.getBean(PlayerChangePublisher.class).playersReloaded();
+
         mockMvc = MockMvcBuilders
                 .webAppContextSetup(context)
                 .addFilter(((request, response, chain) -> {
                     response.setCharacterEncoding("UTF-8");
                     chain.doFilter(request, response);
                 }))
+                .alwaysDo(this::completeAsync)
                 .build();
     }
+
+    // The controller answers with CompletableFuture; wait for it and run the async dispatch, which
+    // writes the final status, headers and body into the same response the test inspects.
+    // Every request also has to stay within the SQL budgets of application-dev.properties.
+    private void completeAsync(MvcResult result) throws Exception {
+        if (result.getRequest().isAsyncStarted()) {
+            mockMvc.perform(asyncDispatch(result));
+        }
+        SqlMatchers.withinBudget().match(result);
+    }
 }
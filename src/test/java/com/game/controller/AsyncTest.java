@@ -0,0 +1,71 @@
+package com.game.controller;
+
+import org.junit.Test;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.springframework.test.util.AssertionErrors.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class AsyncTest extends AbstractTest {
+
+    //test1
+    @Test
+    public void getPlayerIsHandledAsynchronously() throws Exception {
+        MvcResult result = mockMvc.perform(get("/rest/players/1"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertNotNull("Запрос игрока по id должен обрабатываться асинхронно.", result.getAsyncResult(0));
+    }
+
+    //test2
+    @Test
+    public void saturatedExecutorAnswersServiceUnavailable() throws Exception {
+        ExecutorService playerExecutor = context.getBean("playerExecutor", ExecutorService.class);
+        int poolSize = context.getEnvironment().getRequiredProperty("player.async.pool-size", Integer.class);
+        CountDownLatch started = new CountDownLatch(poolSize);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<?>> blockers = new ArrayList<>();
+        try {
+            for (int i = 0; i < poolSize; i++) {
+                blockers.add(playerExecutor.submit(() -> {
+                    started.countDown();
+                    release.await();
+                    return null;
+                }));
+            }
+            started.await();
+            try {
+                while (true) {
+                    blockers.add(playerExecutor.submit(() -> {
+                        release.await();
+                        return null;
+                    }));
+                }
+            } catch (RejectedExecutionException e) {
+                // all threads are busy and the queue is full
+            }
+
+            mockMvc.perform(get("/rest/players/1"))
+                    .andExpect(status().isServiceUnavailable());
+            mockMvc.perform(get("/rest/players/count"))
+                    .andExpect(status().isServiceUnavailable());
+        } finally {
+            release.countDown();
+            for (Future<?> blocker : blockers) {
+                blocker.get();
+            }
+        }
+
+        mockMvc.perform(get("/rest/players/1"))
+                .andExpect(status().isOk());
+    }
+}
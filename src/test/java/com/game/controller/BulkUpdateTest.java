@@ -0,0 +1,163 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.controller.utils.PlayerInfoTest;
+import com.game.controller.utils.TestsHelper;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static com.game.controller.utils.SqlMatchers.statements;
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class BulkUpdateTest extends AbstractTest {
+
+    private final TestsHelper testsHelper = new TestsHelper();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void banByIds() throws Exception {
+        List<Long> ids = Arrays.asList(1L, 2L, 3L, 4L, 5L);
+        long notBanned = ids.stream().filter(id -> !testsHelper.getPlayerInfosById(id).banned).count();
+
+        int updated = updated(post("/rest/players/ban"), "{\"ids\": [1, 2, 3, 4, 5]}");
+
+        assertEquals("Должны обновляться только ещё не забаненные игроки.", (int) notBanned, updated);
+        for (Long id : ids) {
+            assertEquals("Игрок должен быть забанен.", true, player(id).banned);
+        }
+    }
+
+    //test2
+    @Test
+    public void unbanByFilter() throws Exception {
+        List<PlayerInfoTest> bannedElves = testsHelper.getPlayerInfosByBaned(true,
+                testsHelper.getPlayerInfosByRace(Race.ELF, testsHelper.getAllPlayers()));
+
+        int updated = updated(post("/rest/players/unban?race=ELF"), null);
+
+        assertEquals("Должны разбаниваться все забаненные эльфы.", bannedElves.size(), updated);
+        mockMvc.perform(get("/rest/players/count?race=ELF&banned=true")).andExpect(content().string("0"));
+    }
+
+    //test3
+    @Test
+    public void patchExperienceByFilterRecomputesLevel() throws Exception {
+        List<PlayerInfoTest> druids = testsHelper.getPlayerInfosByProfession(Profession.DRUID, testsHelper.getAllPlayers());
+
+        int updated = updated(post("/rest/players/bulk?profession=DRUID"), "{\"patch\": {\"experience\": 63986, \"race\": \"GIANT\"}}");
+
+        assertEquals("Должны обновляться все игроки, подходящие под фильтр.", druids.size(), updated);
+        for (PlayerInfoTest druid : druids) {
+            PlayerInfoTest actual = player(druid.id);
+            assertEquals("Опыт должен обновиться.", 63986, actual.experience);
+            assertEquals("Уровень должен пересчитаться.", 35, actual.level);
+            assertEquals("Опыт до следующего уровня должен пересчитаться.", 2614, actual.untilNextLevel);
+            assertEquals("Раса должна обновиться.", Race.GIANT, actual.race);
+        }
+    }
+
+    //test4
+    @Test
+    public void patchByIdsAndFilter() throws Exception {
+        int updated = updated(post("/rest/players/bulk?banned=true"), "{\"ids\": [1, 3, 4], \"patch\": {\"title\": \"Нарушитель\"}}");
+
+        assertEquals("Должны обновляться только игроки из списка, подходящие под фильтр.", 2, updated);
+        assertEquals("Игрок без бана не должен измениться.", testsHelper.getPlayerInfosById(1).title, player(1L).title);
+        assertEquals("Забаненный игрок из списка должен обновиться.", "Нарушитель", player(3L).title);
+    }
+
+    //test5
+    @Test
+    public void bulkUpdateWithoutTarget() throws Exception {
+        mockMvc.perform(post("/rest/players/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"patch\": {\"banned\": true}}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/rest/players/ban"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/rest/players/count?banned=true"))
+                .andExpect(content().string(String.valueOf(testsHelper.getPlayerInfosByBaned(true, testsHelper.getAllPlayers()).size())));
+    }
+
+    //test6
+    @Test
+    public void bulkUpdateWithInvalidPatch() throws Exception {
+        mockMvc.perform(post("/rest/players/bulk?race=ELF")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"patch\": {\"experience\": 10000001}}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/rest/players/bulk?race=ELF")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"patch\": {}}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/rest/players/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\": [], \"patch\": {\"banned\": true}}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    //test7
+    @Test
+    public void banByFilterUpdatesCachesInsteadOfReloading() throws Exception {
+        List<PlayerInfoTest> elves = testsHelper.getPlayerInfosByRace(Race.ELF, testsHelper.getAllPlayers());
+        PlayerInfoTest notElf = testsHelper.getPlayerInfosById(12);
+        mockMvc.perform(get("/rest/players/12")).andExpect(status().isOk());
+
+        updated(post("/rest/players/ban?race=ELF"), null);
+
+        mockMvc.perform(get("/rest/players/12"))
+                .andExpect(status().isOk())
+                .andExpect(statements(0));
+        assertEquals("Игрок другой расы не должен измениться.", notElf.banned, player(12L).banned);
+        for (PlayerInfoTest elf : elves) {
+            assertEquals("Эльф должен быть забанен.", true, player(elf.id).banned);
+        }
+    }
+
+    //test8
+    @Test
+    public void banPlayerCreatedWithoutBanned() throws Exception {
+        String created = mockMvc.perform(post("/rest/players")
+                .contentType(MediaType.APPLICATION_JSON)
+                .characterEncoding("UTF-8")
+                .content("{\"name\":\"Безфлага\",\"title\":\"Новичок\",\"race\":\"ELF\",\"profession\":\"DRUID\",\"birthday\":988059600000,\"experience\":100}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        PlayerInfoTest player = mapper.readValue(created, PlayerInfoTest.class);
+        assertEquals("Игрок создаётся без флага banned.", null, player.banned);
+
+        int updated = updated(post("/rest/players/ban"), "{\"ids\": [" + player.id + "]}");
+
+        assertEquals("Игрок без флага banned тоже должен баниться.", 1, updated);
+        assertEquals("Игрок должен быть забанен.", true, player(player.id).banned);
+    }
+
+    private int updated(MockHttpServletRequestBuilder request, String body) throws Exception {
+        if (body != null) {
+            request.contentType(MediaType.APPLICATION_JSON).characterEncoding("UTF-8").content(body);
+        }
+        String content = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return (Integer) mapper.readValue(content, Map.class).get("updated");
+    }
+
+    private PlayerInfoTest player(Long id) throws Exception {
+        String content = mockMvc.perform(get("/rest/players/" + id))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readValue(content, PlayerInfoTest.class);
+    }
+}
@@ -0,0 +1,154 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.controller.utils.PlayerInfoTest;
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class ConcurrentUpdateTest extends AbstractTest {
+
+    private static final int THREADS = 4;
+    private static final int UPDATES_PER_THREAD = 25;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void staleIfMatchIsConflict() throws Exception {
+        String eTag = mockMvc.perform(get("/rest/players/15"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        String newETag = mockMvc.perform(post("/rest/players/15")
+                .header(HttpHeaders.IF_MATCH, eTag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"banned\": true}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertTrue("После изменения ETag должен измениться.", newETag != null && !newETag.equals(eTag));
+
+        mockMvc.perform(post("/rest/players/15")
+                .header(HttpHeaders.IF_MATCH, eTag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"banned\": false}"))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(get("/rest/players/15"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, newETag));
+
+        mockMvc.perform(post("/rest/players/15")
+                .header(HttpHeaders.IF_MATCH, "abc")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"banned\": false}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    //test2
+    @Test
+    public void readModifyWriteWithIfMatchLosesNoUpdate() throws Exception {
+        int experience = player(16).experience;
+
+        List<Integer> conflicts = runConcurrently(thread -> {
+            int conflictCount = 0;
+            for (int i = 0; i < UPDATES_PER_THREAD; i++) {
+                while (true) {
+                    MockHttpServletResponse read = mockMvc.perform(get("/rest/players/16")).andReturn().getResponse();
+                    PlayerInfoTest player = mapper.readValue(read.getContentAsString(), PlayerInfoTest.class);
+                    int status = mockMvc.perform(post("/rest/players/16")
+                            .header(HttpHeaders.IF_MATCH, read.getHeader(HttpHeaders.ETAG))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"experience\": " + (player.experience + 1) + "}"))
+                            .andReturn().getResponse().getStatus();
+                    if (status == 200) break;
+                    assertEquals("Конкурентное изменение должно отклоняться с 409.", 409, status);
+                    conflictCount++;
+                }
+            }
+            return conflictCount;
+        });
+
+        assertEquals("Ни одно увеличение опыта не должно потеряться (конфликтов: " + conflicts + ").",
+                experience + THREADS * UPDATES_PER_THREAD, player(16).experience);
+    }
+
+    //test3
+    @Test
+    public void blindWritesAreRetriedAndAllApplied() throws Exception {
+        long version = version(17);
+
+        runConcurrently(thread -> {
+            for (int i = 0; i < UPDATES_PER_THREAD; i++) {
+                // Every write changes the player, so every write must produce a version of its own.
+                String body = thread % 2 == 0
+                        ? "{\"title\": \"Поток " + thread + " / " + i + "\"}"
+                        : "{\"experience\": " + (1000 * thread + i) + "}";
+                int status = mockMvc.perform(post("/rest/players/17")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                        .andReturn().getResponse().getStatus();
+                assertEquals("Изменение без If-Match должно повторяться сервером, а не отклоняться.", 200, status);
+            }
+            return null;
+        });
+
+        assertEquals("Каждое изменение должно быть применено.",
+                version + THREADS * UPDATES_PER_THREAD, version(17));
+        PlayerInfoTest player = player(17);
+        assertTrue("Итоговый титул должен быть последним из записанных.", player.title.endsWith("/ " + (UPDATES_PER_THREAD - 1)));
+        assertEquals("Итоговый опыт должен быть последним из записанных.",
+                0, (player.experience - (UPDATES_PER_THREAD - 1)) % 1000);
+    }
+
+    private <T> List<T> runConcurrently(ThreadTask<T> task) throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                int number = thread;
+                futures.add(clients.submit((Callable<T>) () -> task.run(number)));
+            }
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private PlayerInfoTest player(long id) throws Exception {
+        String content = mockMvc.perform(get("/rest/players/" + id))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readValue(content, PlayerInfoTest.class);
+    }
+
+    private long version(long id) {
+        JdbcTemplate jdbc = new JdbcTemplate(context.getBean(DataSource.class));
+        return jdbc.queryForObject("SELECT version FROM player WHERE id = ?", Long.class, id);
+    }
+
+    private interface ThreadTask<T> {
+        T run(int thread) throws Exception;
+    }
+}
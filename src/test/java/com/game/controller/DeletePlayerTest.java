@@ -3,6 +3,8 @@ package com.game.controller;
 import org.junit.Test;
 import org.springframework.http.MediaType;
 
+import static com.game.controller.utils.SqlMatchers.entities;
+import static com.game.controller.utils.SqlMatchers.statements;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -39,4 +41,31 @@ public class DeletePlayerTest extends AbstractTest {
         mockMvc.perform(get("/rest/players/1"))
                 .andExpect(status().isNotFound());
     }
-}
\ No newline at end of file
+
+    //test5
+    @Test
+    public void deletePlayerAfterGapTest() throws Exception {
+        mockMvc.perform(delete("/rest/players/1"))
+                .andExpect(status().isOk());
+
+        // The last id is now greater than the number of players.
+        mockMvc.perform(delete("/rest/players/40"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(delete("/rest/players/1"))
+                .andExpect(status().isNotFound());
+    }
+
+    //test6
+    @Test
+    public void deletePlayerIsSingleStatementTest() throws Exception {
+        mockMvc.perform(delete("/rest/players/5"))
+                .andExpect(status().isOk())
+                .andExpect(statements(1))
+                .andExpect(entities(0));
+
+        mockMvc.perform(delete("/rest/players/-5"))
+                .andExpect(status().isNotFound())
+                .andExpect(statements(0));
+    }
+}
@@ -0,0 +1,172 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.controller.utils.PlayerInfoTest;
+import com.game.controller.utils.TestsHelper;
+import com.game.entity.LevelCurve;
+import com.game.entity.Player;
+import com.game.repository.PlayerRepository;
+import com.game.service.ExperienceFlushMode;
+import com.game.service.ExperienceService;
+import com.game.service.PlayerChangeListener;
+import com.game.service.PlayerChangePublisher;
+import com.game.service.PlayerService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class ExperienceGrantTest extends AbstractTest {
+
+    private final TestsHelper testsHelper = new TestsHelper();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void bufferedGrantIsWrittenOnFlush() throws Exception {
+        int experience = testsHelper.getPlayerInfosById(7).experience;
+
+        grant(7L, "{\"amount\": 1500}", "", status().isAccepted());
+        grant(7L, "{\"amount\": 2500}", "", status().isAccepted());
+        assertEquals("До сброса буфера опыт игрока не должен меняться.", experience, player(7L).experience);
+
+        context.getBean(ExperienceService.class).flush();
+
+        assertLeveled(player(7L), experience + 4000);
+    }
+
+    //test2
+    @Test
+    public void concurrentGrantsAreNotLost() throws Exception {
+        int experience = testsHelper.getPlayerInfosById(3).experience;
+        ExperienceService experienceService = context.getBean(ExperienceService.class);
+        ExecutorService clients = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> grants = new ArrayList<>();
+            for (int i = 0; i < 800; i++) {
+                grants.add(clients.submit(() -> experienceService.grant(3L, 10, false)));
+            }
+            for (Future<?> grant : grants) {
+                grant.get();
+            }
+        } finally {
+            clients.shutdown();
+        }
+
+        experienceService.flush();
+
+        assertLeveled(player(3L), experience + 8000);
+    }
+
+    //test3
+    @Test
+    public void syncGrantReturnsUpdatedPlayer() throws Exception {
+        int experience = testsHelper.getPlayerInfosById(12).experience;
+
+        String content = grant(12L, "{\"amount\": 777}", "?sync=true", status().isOk());
+
+        assertLeveled(mapper.readValue(content, PlayerInfoTest.class), experience + 777);
+        assertLeveled(player(12L), experience + 777);
+    }
+
+    //test4
+    @Test
+    public void experienceIsCappedAtMaximum() throws Exception {
+        grant(1L, "{\"amount\": 10000000}", "", status().isAccepted());
+        grant(1L, "{\"amount\": 10000000}", "", status().isAccepted());
+        context.getBean(ExperienceService.class).flush();
+
+        assertLeveled(player(1L), LevelCurve.MAX_EXPERIENCE);
+    }
+
+    //test5
+    @Test
+    public void invalidGrants() throws Exception {
+        grant(1L, "{\"amount\": 0}", "", status().isBadRequest());
+        grant(1L, "{\"amount\": -5}", "", status().isBadRequest());
+        grant(1L, "{\"amount\": 10000001}", "", status().isBadRequest());
+        grant(1L, "{}", "", status().isBadRequest());
+        grant(0L, "{\"amount\": 5}", "", status().isBadRequest());
+        grant(100L, "{\"amount\": 5}", "", status().isNotFound());
+        assertEquals("Отклонённые начисления не должны попадать в буфер.", 0,
+                context.getBean(ExperienceService.class).pendingPlayers());
+    }
+
+    //test6
+    @Test
+    public void failedPublishDoesNotGrantTwice() throws Exception {
+        JdbcTemplate jdbc = new JdbcTemplate(context.getBean(DataSource.class));
+        int experience = jdbc.queryForObject("SELECT experience FROM player WHERE id = 9", Integer.class);
+        AtomicBoolean reloaded = new AtomicBoolean();
+        PlayerChangeListener failing = new PlayerChangeListener() {
+            @Override
+            public void playersChanged(Collection<Player> players) {
+                throw new IllegalStateException("listener failure");
+            }
+
+            @Override
+            public void playersReloaded() {
+                reloaded.set(true);
+            }
+        };
+        ExperienceService experienceService = new ExperienceService(context.getBean(PlayerService.class),
+                context.getBean(PlayerRepository.class), new PlayerChangePublisher(Collections.singletonList(failing)),
+                context.getBean(EntityManagerFactory.class), context.getBean(PlatformTransactionManager.class),
+                new SimpleMeterRegistry(), ExperienceFlushMode.BUFFERED, 60_000, 10_000);
+        try {
+            experienceService.grant(9L, 500, false);
+            experienceService.flush();
+            assertTrue("Упавший слушатель должен быть перезагружен.", reloaded.get());
+            assertEquals("Записанные начисления не должны возвращаться в буфер.", 0, experienceService.pendingPlayers());
+
+            experienceService.flush();
+        } finally {
+            experienceService.destroy();
+        }
+
+        assertEquals("Опыт должен быть начислен ровно один раз.", experience + 500,
+                jdbc.queryForObject("SELECT experience FROM player WHERE id = 9", Integer.class));
+    }
+
+    private String grant(Long id, String body, String query, ResultMatcher status) throws Exception {
+        return mockMvc.perform(post("/rest/players/" + id + "/experience" + query)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status)
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private void assertLeveled(PlayerInfoTest actual, int experience) {
+        Player expected = new Player();
+        expected.setExperience(experience);
+        assertEquals("Опыт должен увеличиться на сумму начислений.", experience, actual.experience);
+        assertEquals("Уровень должен пересчитаться.", expected.getLevel(), actual.level);
+        assertEquals("Опыт до следующего уровня должен пересчитаться.", expected.getUntilNextLevel(), actual.untilNextLevel);
+    }
+
+    private PlayerInfoTest player(Long id) throws Exception {
+        String content = mockMvc.perform(get("/rest/players/" + id))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readValue(content, PlayerInfoTest.class);
+    }
+}
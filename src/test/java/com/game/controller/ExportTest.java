@@ -0,0 +1,137 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.controller.utils.PlayerInfoTest;
+import com.game.controller.utils.TestsHelper;
+import com.game.dto.FilterDTO;
+import com.game.entity.Race;
+import com.game.service.PlayerExportService;
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class ExportTest extends AbstractTest {
+
+    private final TestsHelper testsHelper = new TestsHelper();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void exportNdjsonWithFilterAndOrder() throws Exception {
+        List<PlayerInfoTest> expected = testsHelper.getPlayerInfosByRace(Race.HUMAN, testsHelper.getAllPlayers());
+        expected.sort(Comparator.comparing((PlayerInfoTest player) -> player.level).thenComparing(player -> player.id));
+
+        MockHttpServletResponse response = mockMvc.perform(get("/rest/players/export?race=HUMAN&order=LEVEL&pageSize=1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/x-ndjson;charset=UTF-8"))
+                .andReturn().getResponse();
+
+        List<PlayerInfoTest> actual = new ArrayList<>();
+        for (String line : response.getContentAsString().split("\n")) {
+            actual.add(mapper.readValue(line, PlayerInfoTest.class));
+        }
+        assertEquals("Экспорт должен вернуть всех подходящих игроков без постраничной разбивки в порядке сортировки.", expected, actual);
+    }
+
+    //test2
+    @Test
+    public void exportCsv() throws Exception {
+        mockMvc.perform(post("/rest/players/2")
+                .contentType(MediaType.APPLICATION_JSON)
+                .characterEncoding("UTF-8")
+                .content("{\"title\": \"Ночной, \\\"Волк\\\"\"}"))
+                .andExpect(status().isOk());
+
+        String[] lines = mockMvc.perform(get("/rest/players/export?format=CSV"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "text/csv;charset=UTF-8"))
+                .andReturn().getResponse().getContentAsString().split("\r\n");
+
+        assertEquals("CSV должен содержать заголовок и всех игроков.", 41, lines.length);
+        assertEquals("Заголовок CSV", "id,name,title,race,profession,birthday,banned,experience,level,untilNextLevel", lines[0]);
+        assertEquals("Строка CSV", "1,Ниус,Приходящий Без Шума,HOBBIT,ROGUE,2010-10-12,false,58347,33,1153", lines[1]);
+        assertEquals("Поля с запятыми и кавычками должны экранироваться.",
+                "2,Никрашш,\"Ночной, \"\"Волк\"\"\",ORC,WARLOCK,2010-02-14,false,174403,58,2597", lines[2]);
+    }
+
+    //test3
+    @Test
+    public void exportGzip() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/rest/players/export?banned=true")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse();
+
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            byte[] buffer = new byte[4096];
+            for (int read; (read = in.read(buffer)) > 0; ) {
+                content.write(buffer, 0, read);
+            }
+        }
+        String[] lines = new String(content.toByteArray(), StandardCharsets.UTF_8).split("\n");
+        assertEquals("Сжатый экспорт должен содержать всех забаненных игроков.",
+                testsHelper.getPlayerInfosByBaned(true, testsHelper.getAllPlayers()).size(), lines.length);
+    }
+
+    //test4
+    @Test
+    public void exportStopsWhenClientDisconnects() throws Exception {
+        PlayerExportService exportService = context.getBean(PlayerExportService.class);
+        BrokenOutputStream out = new BrokenOutputStream(100);
+
+        boolean failed = false;
+        try {
+            exportService.export(new FilterDTO(), ExportFormat.CSV, out);
+        } catch (IOException e) {
+            failed = true;
+        }
+
+        assertTrue("Ошибка записи должна прерывать экспорт.", failed);
+        assertEquals("После ошибки записи экспорт не должен продолжать писать.", 1, out.failedWrites);
+        mockMvc.perform(get("/rest/players/export")).andExpect(status().isOk());
+    }
+
+    private static final class BrokenOutputStream extends OutputStream {
+        private final int capacity;
+        private int written;
+        private int failedWrites;
+
+        BrokenOutputStream(int capacity) {
+            this.capacity = capacity;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (written + len > capacity) {
+                failedWrites++;
+                throw new IOException("Broken pipe");
+            }
+            written += len;
+        }
+    }
+}
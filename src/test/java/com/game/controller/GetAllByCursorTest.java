@@ -0,0 +1,156 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.controller.utils.PlayerInfoTest;
+import com.game.controller.utils.TestsHelper;
+import com.game.service.PlayerChangePublisher;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.util.AssertionErrors.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class GetAllByCursorTest extends AbstractTest {
+
+    private final TestsHelper testsHelper = new TestsHelper();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final TypeReference<List<PlayerInfoTest>> typeReference = new TypeReference<List<PlayerInfoTest>>() {
+    };
+
+    //test1
+    @Test
+    public void getAllByCursorOrderIdWalksWholeTable() throws Exception {
+        assertWalk("order=ID&pageSize=7", testsHelper.getAllPlayers(), player -> player.id);
+    }
+
+    //test2
+    @Test
+    public void getAllByCursorOrderLevelWalksWholeTable() throws Exception {
+        assertWalk("order=LEVEL&pageSize=4", testsHelper.getAllPlayers(), player -> player.level);
+    }
+
+    //test3
+    @Test
+    public void getAllByCursorOrderBirthdayWithFilter() throws Exception {
+        assertWalk("order=BIRTHDAY&banned=false&pageSize=5",
+                testsHelper.getPlayerInfosByBaned(false, testsHelper.getAllPlayers()), player -> player.birthday);
+    }
+
+    //test4
+    @Test
+    public void getAllByCursorOrderNameWalksWholeTable() throws Exception {
+        assertWalk("order=NAME&pageSize=6", testsHelper.getAllPlayers(), player -> player.name);
+    }
+
+    //test5
+    @Test
+    public void getAllByCursorNotMatchingOrder() throws Exception {
+        MvcResult first = mockMvc.perform(get("/rest/players?order=LEVEL&cursor="))
+                .andExpect(status().isOk())
+                .andReturn();
+        String cursor = first.getResponse().getHeader(PlayerController.NEXT_CURSOR_HEADER);
+
+        mockMvc.perform(get("/rest/players?order=NAME&cursor=" + cursor))
+                .andExpect(status().isBadRequest());
+    }
+
+    //test6
+    @Test
+    public void getAllByInvalidCursor() throws Exception {
+        mockMvc.perform(get("/rest/players?cursor=not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    //test7
+    @Test
+    public void getAllWithoutCursorHasNoNextCursor() throws Exception {
+        MvcResult result = mockMvc.perform(get("/rest/players"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertNull("Без параметра cursor заголовок X-Next-Cursor не должен возвращаться.",
+                result.getResponse().getHeader(PlayerController.NEXT_CURSOR_HEADER));
+    }
+
+    //test8
+    @Test
+    public void getAllByCursorOrderLevelWalksAcrossNullLevels() throws Exception {
+        List<Long> nullIds = insertPlayers("level", 3);
+
+        List<Long> expected = new ArrayList<>(nullIds);
+        List<PlayerInfoTest> players = new ArrayList<>(testsHelper.getAllPlayers());
+        players.sort(Comparator.comparing((PlayerInfoTest player) -> player.level).thenComparing(player -> player.id));
+        players.forEach(player -> expected.add(player.id));
+
+        assertEquals("Игроки без уровня должны идти первыми, и обход не должен на них останавливаться.",
+                expected, walkIds("order=LEVEL&pageSize=2"));
+    }
+
+    //test9
+    @Test
+    public void getAllByCursorOrderBirthdayWalksAcrossNullBirthdays() throws Exception {
+        List<Long> nullIds = insertPlayers("birthday", 2);
+
+        List<Long> expected = new ArrayList<>(nullIds);
+        List<PlayerInfoTest> players = new ArrayList<>(testsHelper.getAllPlayers());
+        players.sort(Comparator.comparing((PlayerInfoTest player) -> player.birthday).thenComparing(player -> player.id));
+        players.forEach(player -> expected.add(player.id));
+
+        assertEquals("Игроки без дня рождения должны идти первыми, и обход не должен на них останавливаться.",
+                expected, walkIds("order=BIRTHDAY&pageSize=1"));
+    }
+
+    // Players written behind the service with the given column NULL; returns their ids in order.
+    private List<Long> insertPlayers(String nullColumn, int count) {
+        JdbcTemplate jdbc = new JdbcTemplate(context.getBean(DataSource.class));
+        for (int i = 0; i < count; i++) {
+            jdbc.update("INSERT INTO player(name, title, race, profession, birthday, banned, experience, level, untilNextLevel) " +
+                    "VALUES ('Пусто" + i + "', 'Без значения', 'ELF', 'DRUID', '2005-01-01', false, 100, 0, 100)");
+        }
+        jdbc.update("UPDATE player SET " + nullColumn + " = NULL WHERE name LIKE 'Пусто%'");
+        context.getBean(PlayerChangePublisher.class).playersReloaded();
+        return jdbc.queryForList("SELECT id FROM player WHERE name LIKE 'Пусто%' ORDER BY id", Long.class);
+    }
+
+    private List<Long> walkIds(String query) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        String cursor = "";
+        while (cursor != null) {
+            MvcResult result = mockMvc.perform(get("/rest/players?" + query + "&cursor=" + cursor))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            List<PlayerInfoTest> page = mapper.readValue(result.getResponse().getContentAsString(), typeReference);
+            page.forEach(player -> ids.add(player.id));
+            cursor = result.getResponse().getHeader(PlayerController.NEXT_CURSOR_HEADER);
+        }
+        return ids;
+    }
+
+    private <T extends Comparable<? super T>> void assertWalk(String query, List<PlayerInfoTest> players,
+                                                              Function<PlayerInfoTest, T> key) throws Exception {
+        List<PlayerInfoTest> expected = new ArrayList<>(players);
+        expected.sort(Comparator.comparing(key).thenComparing(player -> player.id));
+
+        List<PlayerInfoTest> actual = new ArrayList<>();
+        String cursor = "";
+        while (cursor != null) {
+            MvcResult result = mockMvc.perform(get("/rest/players?" + query + "&cursor=" + cursor))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            actual.addAll(mapper.readValue(result.getResponse().getContentAsString(), typeReference));
+            cursor = result.getResponse().getHeader(PlayerController.NEXT_CURSOR_HEADER);
+        }
+
+        assertEquals("Постраничный обход по cursor должен вернуть всех игроков в порядке сортировки.", expected, actual);
+    }
+}
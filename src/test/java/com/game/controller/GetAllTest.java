@@ -11,9 +11,12 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.util.AssertionErrors.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -172,4 +175,81 @@ public class GetAllTest extends AbstractTest {
 
         assertEquals("Возвращается не правильный результат при запросе GET /rest/players с параметрами after, before, minExperience и maxExperience.", expected, actual);
     }
-}
\ No newline at end of file
+
+    //test9
+    @Test
+    public void getAllWithFilterNameTreatsWildcardsLiterally() throws Exception {
+        ResultActions resultActions = mockMvc.perform(get("/rest/players?name=%25&pageSize=40"))
+                .andExpect(status().isOk());
+
+        MvcResult result = resultActions.andReturn();
+        String contentAsString = result.getResponse().getContentAsString();
+
+        List<PlayerInfoTest> actual = mapper.readValue(contentAsString, typeReference);
+        List<PlayerInfoTest> expected = testsHelper.getPlayerInfosByName("%", testsHelper.getAllPlayers());
+
+        assertEquals("Символы % и _ в параметре name должны искаться как обычные символы.", expected, actual);
+    }
+
+    //test10
+    @Test
+    public void getAllWithOrderExperiencePageNumberPageSize() throws Exception {
+        ResultActions resultActions = mockMvc.perform(get("/rest/players?order=EXPERIENCE&pageNumber=2&pageSize=5"))
+                .andExpect(status().isOk());
+
+        MvcResult result = resultActions.andReturn();
+        String contentAsString = result.getResponse().getContentAsString();
+
+        List<PlayerInfoTest> sorted = new ArrayList<>(testsHelper.getAllPlayers());
+        sorted.sort(Comparator.comparing((PlayerInfoTest player) -> player.experience).thenComparing(player -> player.id));
+
+        List<PlayerInfoTest> actual = mapper.readValue(contentAsString, typeReference);
+        List<PlayerInfoTest> expected = testsHelper.getPlayerInfosByPage(2, 5, sorted);
+
+        assertEquals("Возвращается не правильный результат при запросе GET /rest/players с параметрами order, pageNumber и pageSize.", expected, actual);
+    }
+
+    //test11
+    @Test
+    public void getAllWithOrderNameAndFilterBanned() throws Exception {
+        ResultActions resultActions = mockMvc.perform(get("/rest/players?banned=false&order=NAME&pageSize=10"))
+                .andExpect(status().isOk());
+
+        MvcResult result = resultActions.andReturn();
+        String contentAsString = result.getResponse().getContentAsString();
+
+        List<PlayerInfoTest> sorted = new ArrayList<>(testsHelper.getPlayerInfosByBaned(false, testsHelper.getAllPlayers()));
+        sorted.sort(Comparator.comparing((PlayerInfoTest player) -> player.name).thenComparing(player -> player.id));
+
+        List<PlayerInfoTest> actual = mapper.readValue(contentAsString, typeReference);
+        List<PlayerInfoTest> expected = testsHelper.getPlayerInfosByPage(0, 10, sorted);
+
+        assertEquals("Возвращается не правильный результат при запросе GET /rest/players с параметрами banned и order.", expected, actual);
+    }
+
+    //test12
+    @Test
+    public void getAllWithNegativePageNumber() throws Exception {
+        mockMvc.perform(get("/rest/players?pageNumber=-1"))
+                .andExpect(status().isBadRequest());
+    }
+
+    //test13
+    @Test
+    public void getAllWithFilterNameIsCaseSensitive() throws Exception {
+        // Two characters: too short for the search index, so the LIKE predicate decides.
+        List<PlayerInfoTest> upper = testsHelper.getPlayerInfosByName("Ни", testsHelper.getAllPlayers());
+        List<PlayerInfoTest> lower = testsHelper.getPlayerInfosByName("ни", testsHelper.getAllPlayers());
+        assertTrue("Тестовые данные должны различать регистр.", !upper.equals(lower));
+
+        String upperContent = mockMvc.perform(get("/rest/players?name=Ни&pageSize=40"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String lowerContent = mockMvc.perform(get("/rest/players?name=ни&pageSize=40"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals("Фильтр name должен учитывать регистр, как String.contains.", upper, mapper.readValue(upperContent, typeReference));
+        assertEquals("Фильтр name должен учитывать регистр, как String.contains.", lower, mapper.readValue(lowerContent, typeReference));
+    }
+}
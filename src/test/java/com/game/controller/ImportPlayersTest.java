@@ -0,0 +1,123 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.controller.utils.PlayerInfoTest;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+import com.game.service.PlayerCache;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class ImportPlayersTest extends AbstractTest {
+
+    private static final String PLAYER_JSON = "{\"name\":\"%s\",\"title\":\"Импорт\",\"race\":\"ELF\",\"profession\":\"DRUID\",\"birthday\":988059600000,\"experience\":%d}";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void importJsonArray() throws Exception {
+        String body = "[" + String.format(PLAYER_JSON, "Первый", 63986) + "," + String.format(PLAYER_JSON, "Второй", 0) + "]";
+
+        Map<?, ?> result = importPlayers(MediaType.APPLICATION_JSON_VALUE, body);
+
+        assertEquals("Должны быть импортированы все игроки.", 2, result.get("imported"));
+        assertEquals("Не должно быть отклонённых записей.", 0, result.get("rejected"));
+        String created = mockMvc.perform(get("/rest/players/41"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        // Read back from the DATE column, not from the Player cache: the birthday is midnight of that day.
+        ZoneId zone = ZoneId.systemDefault();
+        long birthday = Instant.ofEpochMilli(988059600000L).atZone(zone).toLocalDate().atStartOfDay(zone).toInstant().toEpochMilli();
+        PlayerInfoTest expected = new PlayerInfoTest(41L, "Первый", "Импорт", Race.ELF, Profession.DRUID, birthday, false, 63986, 35, 2614);
+        assertEquals("Импортированный игрок должен получить уровень и флаг banned.", expected, mapper.readValue(created, PlayerInfoTest.class));
+        mockMvc.perform(get("/rest/players/count")).andExpect(content().string("42"));
+    }
+
+    //test2
+    @Test
+    public void importNdjsonWithInvalidRecords() throws Exception {
+        String body = String.format(PLAYER_JSON, "Первый", 100) + "\n"
+                + String.format(PLAYER_JSON, "СлишкомДлинноеИмя", 100) + "\n"
+                + String.format(PLAYER_JSON, "Отрицат", -1) + "\n"
+                + "{\"name\":\"Раса\",\"title\":\"Импорт\",\"race\":\"GNOME\",\"profession\":\"DRUID\",\"birthday\":988059600000,\"experience\":5}\n"
+                + String.format(PLAYER_JSON, "Последний", 200) + "\n";
+
+        Map<?, ?> result = importPlayers("application/x-ndjson", body);
+
+        assertEquals("Должны быть импортированы только корректные игроки.", 2, result.get("imported"));
+        assertEquals("Некорректные записи должны быть отклонены.", 3, result.get("rejected"));
+        assertEquals("Отклонённые записи должны указываться по номеру.",
+                Arrays.asList(1, 2, 3),
+                ((List<?>) result.get("errors")).stream().map(error -> ((Map<?, ?>) error).get("index")).collect(Collectors.toList()));
+        mockMvc.perform(get("/rest/players/count?title=Импорт")).andExpect(content().string("2"));
+    }
+
+    //test3
+    @Test
+    public void importSeveralBatches() throws Exception {
+        String body = IntStream.range(0, 2500)
+                .mapToObj(i -> String.format(PLAYER_JSON, "Игрок" + i, i))
+                .collect(Collectors.joining("\n"));
+
+        Map<?, ?> result = importPlayers("application/x-ndjson", body);
+
+        assertEquals("Должны быть импортированы все игроки.", 2500, result.get("imported"));
+        mockMvc.perform(get("/rest/players/count")).andExpect(content().string("2540"));
+        mockMvc.perform(get("/rest/players/2540")).andExpect(status().isOk());
+    }
+
+    //test4
+    @Test
+    public void importStopsAtMalformedJson() throws Exception {
+        String body = String.format(PLAYER_JSON, "Первый", 100) + "\n{\"name\": \"Обрыв\", \n";
+
+        Map<?, ?> result = importPlayers("application/x-ndjson", body);
+
+        assertEquals("Игроки до ошибки разбора должны быть импортированы.", 1, result.get("imported"));
+        assertEquals("Ошибка разбора должна быть указана в отчёте.", 1, result.get("rejected"));
+        mockMvc.perform(get("/rest/players/count")).andExpect(content().string("41"));
+    }
+
+    //test5
+    @Test
+    public void importDoesNotFillPlayerCache() throws Exception {
+        mockMvc.perform(get("/rest/players/3")).andExpect(status().isOk());
+        PlayerCache playerCache = context.getBean(PlayerCache.class);
+        long size = playerCache.size();
+        String body = IntStream.range(0, 1500)
+                .mapToObj(i -> String.format(PLAYER_JSON, "Игрок" + i, i))
+                .collect(Collectors.joining("\n"));
+
+        Map<?, ?> result = importPlayers("application/x-ndjson", body);
+
+        assertEquals("Должны быть импортированы все игроки.", 1500, result.get("imported"));
+        assertEquals("Импорт не должен заполнять кэш игроков.", size, playerCache.size());
+        mockMvc.perform(get("/rest/players/count?title=Импорт")).andExpect(content().string("1500"));
+        mockMvc.perform(get("/rest/players/1540")).andExpect(status().isOk());
+    }
+
+    private Map<?, ?> importPlayers(String contentType, String body) throws Exception {
+        String content = mockMvc.perform(post("/rest/players/import")
+                .contentType(contentType)
+                .characterEncoding("UTF-8")
+                .content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readValue(content, Map.class);
+    }
+}
@@ -0,0 +1,198 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.controller.utils.PlayerInfoTest;
+import com.game.controller.utils.TestsHelper;
+import com.game.entity.Player;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+import com.game.repository.PlayerRepository;
+import com.game.service.Leaderboard;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class LeaderboardTest extends AbstractTest {
+
+    private static final Comparator<PlayerInfoTest> RANKING = Comparator.<PlayerInfoTest>comparingInt(player -> -player.experience)
+            .thenComparing(player -> player.id);
+
+    private final TestsHelper testsHelper = new TestsHelper();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final TypeReference<List<PlayerInfoTest>> typeReference = new TypeReference<List<PlayerInfoTest>>() {
+    };
+
+    //test1
+    @Test
+    public void topOverall() throws Exception {
+        assertEquals("Топ игроков должен быть отсортирован по убыванию опыта.",
+                expectedTop(player -> true, 10), top("limit=10"));
+    }
+
+    //test2
+    @Test
+    public void topByRaceAndProfession() throws Exception {
+        assertEquals("Топ расы должен содержать только игроков этой расы.",
+                expectedTop(player -> player.race == Race.HUMAN, 100), top("race=HUMAN"));
+        assertEquals("Топ профессии должен содержать только игроков этой профессии.",
+                expectedTop(player -> player.profession == Profession.WARRIOR, 3), top("profession=WARRIOR&limit=3"));
+        assertEquals("Топ расы и профессии должен учитывать оба условия.",
+                expectedTop(player -> player.race == Race.ELF && player.profession == Profession.SORCERER, 100),
+                top("race=ELF&profession=SORCERER"));
+    }
+
+    //test3
+    @Test
+    public void rankOfPlayer() throws Exception {
+        PlayerInfoTest player = testsHelper.getPlayerInfosById(14);
+        Map<?, ?> rank = rank(14L);
+
+        assertEquals("Общий ранг игрока.", rankAmong(player, candidate -> true), rank.get("rank"));
+        assertEquals("Ранг игрока в своей расе.", rankAmong(player, candidate -> candidate.race == player.race), rank.get("raceRank"));
+        assertEquals("Ранг игрока в своей профессии.",
+                rankAmong(player, candidate -> candidate.profession == player.profession), rank.get("professionRank"));
+        assertEquals("Общее количество игроков.", testsHelper.getAllPlayers().size(), rank.get("total"));
+    }
+
+    //test4
+    @Test
+    public void leaderboardFollowsWrites() throws Exception {
+        top("limit=1");
+
+        mockMvc.perform(post("/rest/players/40")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"experience\": 10000000}"))
+                .andExpect(status().isOk());
+        assertEquals("После обновления опыта игрок должен стать первым.", 1, rank(40L).get("rank"));
+
+        mockMvc.perform(delete("/rest/players/40")).andExpect(status().isOk());
+        mockMvc.perform(get("/rest/leaderboard/40")).andExpect(status().isNotFound());
+        assertEquals("После удаления игрок должен пропасть из таблицы.",
+                expectedTop(player -> player.id != 40, 5), top("limit=5"));
+    }
+
+    //test5
+    @Test
+    public void invalidRequests() throws Exception {
+        mockMvc.perform(get("/rest/leaderboard?limit=0")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/rest/leaderboard?limit=1001")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/rest/leaderboard/0")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/rest/leaderboard/100")).andExpect(status().isNotFound());
+    }
+
+    //test6
+    @Test
+    public void playerWithoutExperienceIsNotRanked() throws Exception {
+        JdbcTemplate jdbc = new JdbcTemplate(context.getBean(DataSource.class));
+        jdbc.update("INSERT INTO player(name, title, race, profession, birthday, banned, experience, level, untilNextLevel) " +
+                "VALUES ('Безопыта', 'Старая запись', 'ELF', 'DRUID', '2005-01-01', false, NULL, NULL, NULL)");
+        Long id = jdbc.queryForObject("SELECT id FROM player WHERE name = 'Безопыта'", Long.class);
+
+        assertEquals("Игрок без опыта не должен попадать в топ.", expectedTop(player -> true, 1000), top("limit=1000"));
+        mockMvc.perform(get("/rest/leaderboard/" + id)).andExpect(status().isNotFound());
+
+        mockMvc.perform(post("/rest/players/ban")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\": [" + id + "]}"))
+                .andExpect(status().isOk());
+        assertEquals("Изменение игрока без опыта не должно ломать таблицу.",
+                expectedTop(player -> true, 1000), top("limit=1000"));
+
+        mockMvc.perform(post("/rest/players/" + id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"experience\": 10000000}"))
+                .andExpect(status().isOk());
+        assertEquals("После получения опыта игрок должен попасть в таблицу.", 1, rank(id).get("rank"));
+    }
+
+    //test7
+    @Test
+    public void topByRaceAndProfessionFollowsWrites() throws Exception {
+        top("race=ELF&profession=SORCERER");
+
+        mockMvc.perform(post("/rest/players/40")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"race\": \"ELF\", \"profession\": \"SORCERER\", \"experience\": 10000000}"))
+                .andExpect(status().isOk());
+        List<Long> expected = new ArrayList<>();
+        expected.add(40L);
+        expected.addAll(expectedTop(player -> player.id != 40 && player.race == Race.ELF && player.profession == Profession.SORCERER, 100));
+        assertEquals("Игрок, сменивший расу и профессию, должен попасть в их топ.", expected, top("race=ELF&profession=SORCERER"));
+
+        mockMvc.perform(post("/rest/players/40")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"race\": \"HUMAN\"}"))
+                .andExpect(status().isOk());
+        assertEquals("Игрок, сменивший расу, должен пропасть из прежнего топа.",
+                expected.subList(1, expected.size()), top("race=ELF&profession=SORCERER"));
+    }
+
+    //test8
+    @Test
+    public void staleEventsAreIgnored() throws Exception {
+        Leaderboard leaderboard = context.getBean(Leaderboard.class);
+        top("limit=1");
+        mockMvc.perform(post("/rest/players/40")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"experience\": 100}"))
+                .andExpect(status().isOk());
+
+        Player stale = context.getBean(PlayerRepository.class).findById(40L).get();
+        ReflectionTestUtils.setField(stale, "version", stale.getVersion() - 1);
+        stale.setExperience(10_000_000);
+        leaderboard.playersChanged(Collections.singletonList(stale));
+        assertEquals("Устаревшее событие не должно менять таблицу.", 100, rank(40L).get("experience"));
+
+        mockMvc.perform(delete("/rest/players/40")).andExpect(status().isOk());
+        ReflectionTestUtils.setField(stale, "version", stale.getVersion() + 10);
+        leaderboard.playersChanged(Collections.singletonList(stale));
+        mockMvc.perform(get("/rest/leaderboard/40")).andExpect(status().isNotFound());
+    }
+
+    private List<Long> top(String query) throws Exception {
+        String content = mockMvc.perform(get("/rest/leaderboard?" + query))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readValue(content, typeReference).stream().map(player -> player.id).collect(Collectors.toList());
+    }
+
+    private Map<?, ?> rank(Long id) throws Exception {
+        String content = mockMvc.perform(get("/rest/leaderboard/" + id))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readValue(content, Map.class);
+    }
+
+    private List<Long> expectedTop(Predicate<PlayerInfoTest> segment, int limit) {
+        return testsHelper.getAllPlayers().stream()
+                .filter(segment)
+                .sorted(RANKING)
+                .limit(limit)
+                .map(player -> player.id)
+                .collect(Collectors.toList());
+    }
+
+    private int rankAmong(PlayerInfoTest player, Predicate<PlayerInfoTest> segment) {
+        return (int) testsHelper.getAllPlayers().stream()
+                .filter(segment)
+                .filter(candidate -> RANKING.compare(candidate, player) < 0)
+                .count() + 1;
+    }
+}
@@ -0,0 +1,51 @@
+package com.game.controller;
+
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class MetricsTest extends AbstractTest {
+
+    //test1
+    @Test
+    public void metricsExposeConnectionPoolStats() throws Exception {
+        mockMvc.perform(get("/rest/players/count"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/metrics"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("hikaricp_connections_active{pool=\"rpg-h2\"")))
+                .andExpect(content().string(containsString("hikaricp_connections_idle{pool=\"rpg-h2\"")))
+                .andExpect(content().string(containsString("hikaricp_connections_pending{pool=\"rpg-h2\"")))
+                .andExpect(content().string(containsString("hikaricp_connections_acquire_seconds_count{pool=\"rpg-h2\"")));
+    }
+
+    //test2
+    @Test
+    public void metricsExposeRequestTimers() throws Exception {
+        mockMvc.perform(get("/rest/players/1")).andExpect(status().isOk());
+        mockMvc.perform(update(0, "{\"banned\": true}")).andExpect(status().isBadRequest());
+        mockMvc.perform(update(1000, "{\"banned\": true}")).andExpect(status().isNotFound());
+        mockMvc.perform(update(1, "{\"experience\": -1}")).andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/metrics"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("player_requests_seconds_count{exception=\"None\",method=\"GET\",status=\"200\",uri=\"/rest/players/{id}\",}")))
+                .andExpect(content().string(containsString("player_requests_seconds{exception=\"None\",method=\"GET\",status=\"200\",uri=\"/rest/players/{id}\",quantile=\"0.99\",}")))
+                .andExpect(content().string(containsString("player_requests_seconds_count{exception=\"InvalidIdException\",method=\"POST\",status=\"400\",uri=\"/rest/players/{id}\",}")))
+                .andExpect(content().string(containsString("player_requests_seconds_count{exception=\"NoSuchPlayerException\",method=\"POST\",status=\"404\",uri=\"/rest/players/{id}\",}")))
+                .andExpect(content().string(containsString("player_requests_seconds_count{exception=\"ValidationException\",method=\"POST\",status=\"400\",uri=\"/rest/players/{id}\",}")))
+                .andExpect(content().string(containsString("player_repository_seconds_count{method=\"findById\",}")))
+                .andExpect(content().string(containsString("player_serialization_seconds_count{type=\"Player\",}")));
+    }
+
+    private static MockHttpServletRequestBuilder update(long id, String body) {
+        return post("/rest/players/" + id).contentType(MediaType.APPLICATION_JSON).content(body);
+    }
+}
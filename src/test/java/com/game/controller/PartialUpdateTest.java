@@ -0,0 +1,98 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.config.SqlProfile;
+import com.game.controller.utils.PlayerInfoTest;
+import com.game.controller.utils.SqlMatchers;
+import com.game.controller.utils.TestsHelper;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.sql.DataSource;
+
+import static com.game.controller.utils.SqlMatchers.statements;
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class PartialUpdateTest extends AbstractTest {
+
+    private final TestsHelper testsHelper = new TestsHelper();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void patchUpdatesOnlyChangedColumns() throws Exception {
+        mockMvc.perform(get("/rest/players/9")).andExpect(status().isOk());
+
+        MvcResult result = mockMvc.perform(post("/rest/players/9")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"banned\": true}"))
+                .andExpect(status().isOk())
+                .andExpect(statements(1))
+                .andReturn();
+
+        SqlProfile profile = SqlMatchers.profile(result);
+        String update = profile.getSql().iterator().next().toLowerCase();
+        assertEquals("UPDATE должен записывать только banned и version.",
+                "update player set banned=?, version=? where id=? and version=?", update);
+
+        PlayerInfoTest expected = testsHelper.getPlayerInfosById(9);
+        expected.banned = true;
+        PlayerInfoTest actual = mapper.readValue(result.getResponse().getContentAsString(), PlayerInfoTest.class);
+        assertEquals("Ответ должен содержать обновлённого игрока.", expected, actual);
+    }
+
+    //test2
+    @Test
+    public void patchWithoutChangesIssuesNoUpdate() throws Exception {
+        mockMvc.perform(get("/rest/players/9")).andExpect(status().isOk());
+        long version = version(9);
+
+        mockMvc.perform(post("/rest/players/9")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"banned\": false}"))
+                .andExpect(status().isOk())
+                .andExpect(statements(0));
+
+        assertEquals("Версия не должна меняться без изменений.", version, version(9));
+    }
+
+    //test3
+    @Test
+    public void everyWritePathIncrementsVersion() throws Exception {
+        long version = version(10);
+
+        mockMvc.perform(post("/rest/players/10")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\": \"Новый титул\"}"))
+                .andExpect(status().isOk());
+        assertEquals("POST /rest/players/{id} должен увеличивать версию.", version + 1, version(10));
+
+        mockMvc.perform(post("/rest/players/ban")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\": [10]}"))
+                .andExpect(status().isOk());
+        assertEquals("POST /rest/players/ban должен увеличивать версию.", version + 2, version(10));
+
+        mockMvc.perform(post("/rest/players/10/experience").param("sync", "true")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"amount\": 100}"))
+                .andExpect(status().isOk());
+        assertEquals("Начисление опыта должно увеличивать версию.", version + 3, version(10));
+
+        String content = mockMvc.perform(get("/rest/players/10"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertTrue("Версия не должна попадать в JSON.", !content.contains("version"));
+    }
+
+    private long version(long id) {
+        JdbcTemplate jdbc = new JdbcTemplate(context.getBean(DataSource.class));
+        return jdbc.queryForObject("SELECT version FROM player WHERE id = ?", Long.class, id);
+    }
+}
@@ -0,0 +1,77 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.controller.utils.PlayerInfoTest;
+import com.game.controller.utils.TestsHelper;
+import com.game.service.PlayerCache;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class PlayerCacheTest extends AbstractTest {
+
+    private final TestsHelper testsHelper = new TestsHelper();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void repeatedGetIsServedFromCache() throws Exception {
+        PlayerCache playerCache = context.getBean(PlayerCache.class);
+        long hits = playerCache.stats().hitCount();
+
+        mockMvc.perform(get("/rest/players/7")).andExpect(status().isOk());
+        mockMvc.perform(get("/rest/players/7")).andExpect(status().isOk());
+
+        assertEquals("Повторный GET /rest/players/{id} должен обслуживаться из кэша.", hits + 1, playerCache.stats().hitCount());
+    }
+
+    //test2
+    @Test
+    public void getAfterUpdateReturnsUpdatedPlayer() throws Exception {
+        mockMvc.perform(get("/rest/players/14")).andExpect(status().isOk());
+
+        String content = mockMvc.perform(post("/rest/players/14")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(String.format(TestsHelper.JSON_SKELETON, "Кэш", true, 2500)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        PlayerInfoTest expected = mapper.readValue(content, PlayerInfoTest.class);
+
+        String cached = mockMvc.perform(get("/rest/players/14"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals("После POST /rest/players/{id} кэш должен вернуть обновлённого игрока.", expected, mapper.readValue(cached, PlayerInfoTest.class));
+    }
+
+    //test3
+    @Test
+    public void getAfterDeleteReturnsNotFound() throws Exception {
+        mockMvc.perform(get("/rest/players/3")).andExpect(status().isOk());
+        mockMvc.perform(delete("/rest/players/3")).andExpect(status().isOk());
+        mockMvc.perform(get("/rest/players/3")).andExpect(status().isNotFound());
+    }
+
+    //test4
+    @Test
+    public void cachedPlayerIsUntouchedByRejectedUpdate() throws Exception {
+        PlayerInfoTest expected = testsHelper.getPlayerInfosById(9);
+        mockMvc.perform(get("/rest/players/9")).andExpect(status().isOk());
+
+        mockMvc.perform(post("/rest/players/9")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"Другой\", \"experience\": -5}"))
+                .andExpect(status().isBadRequest());
+
+        String cached = mockMvc.perform(get("/rest/players/9"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals("Отклонённый POST /rest/players/{id} не должен менять игрока в кэше.", expected, mapper.readValue(cached, PlayerInfoTest.class));
+    }
+}
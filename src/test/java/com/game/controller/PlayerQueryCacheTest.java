@@ -0,0 +1,112 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.controller.utils.PlayerInfoTest;
+import com.game.controller.utils.TestsHelper;
+import com.game.service.PlayerChangePublisher;
+import com.game.service.PlayerQueryCache;
+import com.game.service.PlayerSearchIndex;
+import com.game.service.PlayerSnapshot;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class PlayerQueryCacheTest extends AbstractTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void repeatedPageIsServedFromCache() throws Exception {
+        PlayerQueryCache queryCache = context.getBean(PlayerQueryCache.class);
+        long hits = queryCache.pageStats().hitCount();
+
+        String first = mockMvc.perform(get("/rest/players?race=HUMAN&order=LEVEL&pageSize=5"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        mockMvc.perform(get("/rest/players?race=HUMAN&order=LEVEL&pageSize=5"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(first));
+
+        assertEquals("Повторный GET /rest/players с теми же параметрами должен обслуживаться из кэша.", hits + 1, queryCache.pageStats().hitCount());
+    }
+
+    //test2
+    @Test
+    public void repeatedCountIsServedFromCache() throws Exception {
+        PlayerQueryCache queryCache = context.getBean(PlayerQueryCache.class);
+        long hits = queryCache.countStats().hitCount();
+
+        mockMvc.perform(get("/rest/players/count?banned=true")).andExpect(status().isOk());
+        mockMvc.perform(get("/rest/players/count?banned=true")).andExpect(status().isOk());
+
+        assertEquals("Повторный GET /rest/players/count с теми же параметрами должен обслуживаться из кэша.", hits + 1, queryCache.countStats().hitCount());
+    }
+
+    //test3
+    @Test
+    public void countAfterCreateAndDelete() throws Exception {
+        mockMvc.perform(get("/rest/players/count")).andExpect(content().string("40"));
+
+        mockMvc.perform(post("/rest/players/")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Новый\",\"title\":\"Игрок\",\"race\":\"HUMAN\",\"profession\":\"WARRIOR\",\"birthday\":988059600000,\"experience\":100}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/rest/players/count")).andExpect(content().string("41"));
+
+        mockMvc.perform(delete("/rest/players/1")).andExpect(status().isOk());
+        mockMvc.perform(get("/rest/players/count")).andExpect(content().string("40"));
+    }
+
+    //test4
+    @Test
+    public void pageAfterUpdate() throws Exception {
+        mockMvc.perform(get("/rest/players/count?name=Кэш")).andExpect(content().string("0"));
+        mockMvc.perform(get("/rest/players?name=Кэш")).andExpect(content().string("[]"));
+
+        mockMvc.perform(post("/rest/players/12")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(String.format(TestsHelper.JSON_SKELETON, "Кэш", false, 1000)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/rest/players/count?name=Кэш")).andExpect(content().string("1"));
+        String page = mockMvc.perform(get("/rest/players?name=Кэш"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<PlayerInfoTest> players = mapper.readValue(page, new TypeReference<List<PlayerInfoTest>>() {
+        });
+
+        assertEquals("После POST /rest/players/{id} закэшированная страница должна обновиться.", 1, players.size());
+        assertEquals("После POST /rest/players/{id} закэшированная страница должна обновиться.", 12L, players.get(0).id);
+    }
+
+    //test5
+    @Test
+    public void queryCacheIsInvalidatedAfterTheQueryCopies() {
+        List<?> listeners = (List<?>) ReflectionTestUtils.getField(context.getBean(PlayerChangePublisher.class), "listeners");
+        int searchIndex = indexOf(listeners, PlayerSearchIndex.class);
+        int snapshot = indexOf(listeners, PlayerSnapshot.class);
+        int queryCache = indexOf(listeners, PlayerQueryCache.class);
+
+        assertTrue("Индекс поиска должен узнавать об изменениях раньше кэша запросов.", searchIndex < queryCache);
+        assertTrue("Снимок должен узнавать об изменениях раньше кэша запросов.", snapshot < queryCache);
+    }
+
+    private static int indexOf(List<?> listeners, Class<?> type) {
+        for (int i = 0; i < listeners.size(); i++) {
+            if (type.isInstance(listeners.get(i))) return i;
+        }
+        throw new AssertionError(type.getSimpleName());
+    }
+}
@@ -0,0 +1,104 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.controller.utils.PlayerInfoTest;
+import com.game.controller.utils.TestsHelper;
+import com.game.entity.Player;
+import com.game.repository.PlayerRepository;
+import com.game.service.PlayerSearchIndex;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.util.AssertionErrors.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class SearchIndexTest extends AbstractTest {
+
+    private final TestsHelper testsHelper = new TestsHelper();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final TypeReference<List<PlayerInfoTest>> typeReference = new TypeReference<List<PlayerInfoTest>>() {
+    };
+
+    //test1
+    @Test
+    public void indexFindsExactlyTheContainingPlayers() {
+        PlayerSearchIndex searchIndex = context.getBean(PlayerSearchIndex.class);
+
+        assertEquals("Индекс должен найти всех игроков, чьё имя содержит подстроку.",
+                ids(testsHelper.getPlayerInfosByName("лан", testsHelper.getAllPlayers())), searchIndex.find("лан", null));
+        assertEquals("Поиск по индексу должен учитывать регистр.", Collections.emptyList(), searchIndex.find("ЛАН", null));
+        assertEquals("Поиск по имени и титулу должен учитывать оба условия.",
+                ids(testsHelper.getPlayerInfosByTitle("ый", testsHelper.getPlayerInfosByName("лан", testsHelper.getAllPlayers()))),
+                searchIndex.find("лан", "ый"));
+        assertNull("Подстроки короче трёх символов ищутся в базе.", searchIndex.find("ла", "ый"));
+    }
+
+    //test2
+    @Test
+    public void indexedSearchMatchesFilter() throws Exception {
+        List<PlayerInfoTest> expected = testsHelper.getPlayerInfosByTitle("ный", testsHelper.getAllPlayers());
+
+        String content = mockMvc.perform(get("/rest/players?title=ный&pageSize=100"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals("Поиск по подстроке титула должен вернуть тех же игроков.", expected, mapper.readValue(content, typeReference));
+        mockMvc.perform(get("/rest/players/count?title=ный"))
+                .andExpect(content().string(String.valueOf(expected.size())));
+        mockMvc.perform(get("/rest/players/count?name=нет такого"))
+                .andExpect(content().string("0"));
+    }
+
+    //test3
+    @Test
+    public void indexFollowsWrites() throws Exception {
+        mockMvc.perform(post("/rest/players/4")
+                .contentType(MediaType.APPLICATION_JSON)
+                .characterEncoding("UTF-8")
+                .content("{\"name\": \"Зорглуб\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/rest/players/count?name=оргл")).andExpect(content().string("1"));
+        mockMvc.perform(get("/rest/players/count?name=Бэлан")).andExpect(content().string("0"));
+
+        mockMvc.perform(delete("/rest/players/4")).andExpect(status().isOk());
+        mockMvc.perform(get("/rest/players/count?name=оргл")).andExpect(content().string("0"));
+    }
+
+    //test4
+    @Test
+    public void staleEventsAreIgnored() throws Exception {
+        PlayerSearchIndex searchIndex = context.getBean(PlayerSearchIndex.class);
+        PlayerRepository playerRepository = context.getBean(PlayerRepository.class);
+        Player stale = playerRepository.findById(4L).get();
+        mockMvc.perform(post("/rest/players/4")
+                .contentType(MediaType.APPLICATION_JSON)
+                .characterEncoding("UTF-8")
+                .content("{\"name\": \"Зорглуб\"}"))
+                .andExpect(status().isOk());
+        Player renamed = playerRepository.findById(4L).get();
+
+        searchIndex.playersChanged(Collections.singletonList(stale));
+        assertEquals("Устаревшее событие не должно менять индекс.", Collections.singletonList(4L), searchIndex.find("оргл", null));
+
+        mockMvc.perform(delete("/rest/players/4")).andExpect(status().isOk());
+        ReflectionTestUtils.setField(renamed, "version", renamed.getVersion() + 10);
+        searchIndex.playersChanged(Collections.singletonList(renamed));
+        assertEquals("Событие после удаления не должно возвращать игрока в индекс.",
+                Collections.emptyList(), searchIndex.find("оргл", null));
+    }
+
+    private static List<Long> ids(List<PlayerInfoTest> players) {
+        return players.stream().map(player -> player.id).sorted().collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,77 @@
+package com.game.controller;
+
+import com.game.dto.FilterDTO;
+import com.game.entity.Player;
+import com.game.entity.Race;
+import com.game.repository.PlayerRepository;
+import com.game.repository.PlayerSpecifications;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.Test;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class SecondLevelCacheTest extends AbstractTest {
+
+    //test1
+    @Test
+    public void playerIsServedFromSecondLevelCache() {
+        EntityManagerFactory entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        CacheRegionStatistics region = statistics().getDomainDataRegionStatistics(Player.CACHE_REGION);
+
+        find(entityManagerFactory, 5L);
+        long hits = region.getHitCount();
+        find(entityManagerFactory, 5L);
+
+        assertEquals("Повторная загрузка игрока по id должна обслуживаться из кэша второго уровня.", hits + 1, region.getHitCount());
+    }
+
+    //test2
+    @Test
+    public void countQueryIsServedFromQueryCache() {
+        PlayerRepository playerRepository = context.getBean(PlayerRepository.class);
+        FilterDTO filter = new FilterDTO();
+        filter.setRace(Race.DWARF);
+
+        playerRepository.count(PlayerSpecifications.byFilter(filter));
+        long hits = statistics().getQueryCacheHitCount();
+        playerRepository.count(PlayerSpecifications.byFilter(filter));
+
+        assertEquals("Повторный запрос количества игроков должен обслуживаться из кэша запросов.", hits + 1, statistics().getQueryCacheHitCount());
+    }
+
+    //test3
+    @Test
+    public void cacheRegionStatisticsInMetrics() throws Exception {
+        MvcResult result = mockMvc.perform(get("/metrics"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("hibernate_second_level_cache_requests")))
+                .andReturn();
+
+        assertTrue("Метрики должны содержать статистику региона player.",
+                result.getResponse().getContentAsString().contains("cache=\"player\""));
+    }
+
+    private Statistics statistics() {
+        return context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private static void find(EntityManagerFactory entityManagerFactory, Long id) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.find(Player.class, id);
+        } finally {
+            entityManager.close();
+        }
+    }
+}
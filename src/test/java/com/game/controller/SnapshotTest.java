@@ -0,0 +1,127 @@
+package com.game.controller;
+
+import com.game.dto.FilterDTO;
+import com.game.entity.Player;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+import com.game.repository.PlayerRepository;
+import com.game.service.PlayerService;
+import com.game.service.PlayerSnapshot;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The dev profile answers the queries from the database; the snapshot is queried directly and
+// must give the same pages and counts.
+public class SnapshotTest extends AbstractTest {
+
+    //test1
+    @Test
+    public void snapshotMatchesDatabase() {
+        assertSameAsDatabase();
+    }
+
+    //test2
+    @Test
+    public void snapshotFollowsWrites() throws Exception {
+        assertSameAsDatabase();
+
+        mockMvc.perform(post("/rest/players/")
+                .contentType(MediaType.APPLICATION_JSON)
+                .characterEncoding("UTF-8")
+                .content("{\"name\":\"Новый\",\"title\":\"Игрок\",\"race\":\"ELF\",\"profession\":\"DRUID\",\"birthday\":988059600000,\"experience\":70000}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/rest/players/12")
+                .contentType(MediaType.APPLICATION_JSON)
+                .characterEncoding("UTF-8")
+                .content("{\"name\":\"Аарон\",\"experience\":1}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/rest/players/ban?race=HUMAN")).andExpect(status().isOk());
+        mockMvc.perform(post("/rest/players/3/experience?sync=true")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"amount\": 500000}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/rest/players/5")).andExpect(status().isOk());
+
+        assertSameAsDatabase();
+    }
+
+    //test3
+    @Test
+    public void staleEventsAreIgnored() throws Exception {
+        PlayerSnapshot snapshot = context.getBean(PlayerSnapshot.class);
+        PlayerRepository playerRepository = context.getBean(PlayerRepository.class);
+        assertSameAsDatabase();
+        Player stale = playerRepository.findById(12L).get();
+        Player deleted = playerRepository.findById(5L).get();
+
+        mockMvc.perform(post("/rest/players/12")
+                .contentType(MediaType.APPLICATION_JSON)
+                .characterEncoding("UTF-8")
+                .content("{\"name\":\"Аарон\",\"experience\":1}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/rest/players/5")).andExpect(status().isOk());
+        ReflectionTestUtils.setField(deleted, "version", deleted.getVersion() + 10);
+        snapshot.playersChanged(Arrays.asList(stale, deleted));
+
+        assertSameAsDatabase();
+    }
+
+    private void assertSameAsDatabase() {
+        PlayerService playerService = context.getBean(PlayerService.class);
+        PlayerSnapshot snapshot = context.getBean(PlayerSnapshot.class);
+
+        for (FilterDTO filter : filters()) {
+            assertEquals("Количество игроков по фильтру.", playerService.count(filter), snapshot.count(filter));
+            for (PlayerOrder order : PlayerOrder.values()) {
+                for (int pageNumber = 0; pageNumber < 3; pageNumber++) {
+                    filter.setOrder(order);
+                    filter.setPageNumber(pageNumber);
+                    filter.setPageSize(4);
+                    List<Long> expected = playerService.findPage(filter).stream().map(Player::getId).collect(Collectors.toList());
+                    assertEquals("Страница " + pageNumber + " в порядке " + order + ".", expected,
+                            snapshot.page(filter, order, null, pageNumber * 4, 4));
+                }
+            }
+        }
+    }
+
+    private static List<FilterDTO> filters() {
+        List<FilterDTO> filters = new ArrayList<>();
+        filters.add(new FilterDTO());
+
+        FilterDTO raceProfession = new FilterDTO();
+        raceProfession.setRace(Race.ELF);
+        raceProfession.setProfession(Profession.DRUID);
+        filters.add(raceProfession);
+
+        FilterDTO bannedLevels = new FilterDTO();
+        bannedLevels.setBanned(false);
+        bannedLevels.setMinLevel(10);
+        bannedLevels.setMaxLevel(30);
+        filters.add(bannedLevels);
+
+        FilterDTO experienceBirthday = new FilterDTO();
+        experienceBirthday.setMinExperience(20_000);
+        experienceBirthday.setMaxExperience(400_000);
+        experienceBirthday.setAfter(1_000_000_000_000L);
+        experienceBirthday.setBefore(1_200_000_000_000L);
+        filters.add(experienceBirthday);
+
+        FilterDTO nameTitle = new FilterDTO();
+        nameTitle.setName("а");
+        nameTitle.setTitle("ый");
+        filters.add(nameTitle);
+        return filters;
+    }
+}
@@ -0,0 +1,72 @@
+package com.game.controller;
+
+import com.game.config.SqlProfile;
+import com.game.controller.utils.SqlMatchers;
+import org.junit.Test;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.game.controller.utils.SqlMatchers.entities;
+import static com.game.controller.utils.SqlMatchers.rows;
+import static com.game.controller.utils.SqlMatchers.statements;
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.util.AssertionErrors.assertNotNull;
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.util.AssertionErrors.fail;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class SqlProfilingTest extends AbstractTest {
+
+    //test1
+    @Test
+    public void getPlayerIssuesAtMostOneQuery() throws Exception {
+        mockMvc.perform(get("/rest/players/12"))
+                .andExpect(status().isOk())
+                .andExpect(statements(1))
+                .andExpect(rows(1))
+                .andExpect(entities(1));
+
+        mockMvc.perform(get("/rest/players/12"))
+                .andExpect(status().isOk())
+                .andExpect(statements(0));
+    }
+
+    //test2
+    @Test
+    public void queriesOfTheAsyncExecutorAreCounted() throws Exception {
+        // A filter no cache has seen yet, so the count has to reach the database.
+        int minExperience = ThreadLocalRandom.current().nextInt(1, 1_000_000);
+        MvcResult result = mockMvc.perform(get("/rest/players/count").param("minExperience", String.valueOf(minExperience)))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertNotNull("Запрос должен выполняться в playerExecutor.", result.getAsyncResult(0));
+        SqlProfile profile = SqlMatchers.profile(result);
+        assertEquals("Запрос из playerExecutor должен быть учтён в профиле запроса.", 1, profile.getStatements());
+        assertEquals("COUNT должен прочитать одну строку.", 1, profile.getRows());
+    }
+
+    //test3
+    @Test
+    public void requestOverBudgetIsReported() throws Exception {
+        MvcResult result = mockMvc.perform(get("/rest/players").param("pageSize", "10"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        try {
+            statements(0).match(result);
+            fail("Матчер должен отклонить запрос со SQL-запросами.");
+        } catch (AssertionError expected) {
+            // over the limit
+        }
+
+        SqlBudgetInterceptor interceptor = new SqlBudgetInterceptor("GET /rest/players entities=5");
+        interceptor.afterCompletion(result.getRequest(), result.getResponse(), null, null);
+        Object violation = result.getRequest().getAttribute(SqlBudgetInterceptor.VIOLATION);
+        assertNotNull("Превышение бюджета должно быть отмечено.", violation);
+        assertTrue("Сообщение должно называть запрос и бюджет: " + violation,
+                violation.toString().startsWith("GET /rest/players is over its SQL budget (entities=5)"));
+    }
+}
@@ -0,0 +1,155 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.controller.utils.PlayerInfoTest;
+import com.game.controller.utils.TestsHelper;
+import com.game.dto.StatsDTO;
+import com.game.entity.Player;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+import com.game.repository.PlayerRepository;
+import com.game.service.PlayerStatistics;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class StatsTest extends AbstractTest {
+
+    private final TestsHelper testsHelper = new TestsHelper();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void statsMatchPlayers() throws Exception {
+        List<PlayerInfoTest> players = testsHelper.getAllPlayers();
+        StatsDTO stats = stats(get("/rest/players/stats"));
+
+        assertEquals("Общее количество игроков.", players.size(), stats.getTotal());
+        assertEquals("Количество забаненных игроков.", testsHelper.getPlayerInfosByBaned(true, players).size(), stats.getBanned());
+        assertEquals("Доля забаненных игроков.", (double) stats.getBanned() / players.size(), stats.getBannedRatio());
+        for (Race race : Race.values()) {
+            assertEquals("Количество игроков расы " + race, testsHelper.getPlayerInfosByRace(race, players).size(),
+                    stats.getByRace().get(race));
+            for (Profession profession : Profession.values()) {
+                assertEquals("Количество игроков расы " + race + " и профессии " + profession,
+                        testsHelper.getPlayerInfosByProfession(profession, testsHelper.getPlayerInfosByRace(race, players)).size(),
+                        stats.getByRaceProfession().get(race).get(profession));
+            }
+        }
+        for (Profession profession : Profession.values()) {
+            assertEquals("Количество игроков профессии " + profession,
+                    testsHelper.getPlayerInfosByProfession(profession, players).size(), stats.getByProfession().get(profession));
+        }
+        assertEquals("Гистограмма уровней.", Arrays.toString(levels(players)), Arrays.toString(stats.getLevels()));
+    }
+
+    //test2
+    @Test
+    public void statsFollowWrites() throws Exception {
+        stats(get("/rest/players/stats"));
+        PlayerInfoTest before = testsHelper.getPlayerInfosById(2);
+
+        mockMvc.perform(post("/rest/players/2")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"race\": \"TROLL\", \"banned\": " + !before.banned + "}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/rest/players/5")).andExpect(status().isOk());
+        mockMvc.perform(post("/rest/players")
+                .contentType(MediaType.APPLICATION_JSON)
+                .characterEncoding("UTF-8")
+                .content(TestsHelper.NORMAL_JSON))
+                .andExpect(status().isOk());
+
+        StatsDTO incremental = stats(get("/rest/players/stats"));
+        StatsDTO recomputed = stats(post("/rest/players/stats/recompute"));
+
+        assertEquals("Количество игроков после создания и удаления.", testsHelper.getAllPlayers().size(), incremental.getTotal());
+        assertEquals("Пересчёт из базы должен совпасть с инкрементальными счётчиками.",
+                mapper.writeValueAsString(recomputed), mapper.writeValueAsString(incremental));
+    }
+
+    //test3
+    @Test
+    public void statsAfterBulkUpdateByFilter() throws Exception {
+        stats(get("/rest/players/stats"));
+
+        mockMvc.perform(post("/rest/players/ban?race=ELF")).andExpect(status().isOk());
+
+        StatsDTO stats = stats(get("/rest/players/stats"));
+        assertEquals("Пересчёт из базы должен совпасть со счётчиками.",
+                mapper.writeValueAsString(stats(post("/rest/players/stats/recompute"))), mapper.writeValueAsString(stats));
+    }
+
+    //test4
+    @Test
+    public void playerWithoutLevelIsCountedWithoutLevel() throws Exception {
+        JdbcTemplate jdbc = new JdbcTemplate(context.getBean(DataSource.class));
+        jdbc.update("INSERT INTO player(name, title, race, profession, birthday, banned, experience, level, untilNextLevel) " +
+                "VALUES ('Безуровня', 'Старая запись', 'ELF', 'DRUID', '2005-01-01', false, 100, NULL, NULL)");
+        Long id = jdbc.queryForObject("SELECT id FROM player WHERE name = 'Безуровня'", Long.class);
+        List<PlayerInfoTest> players = testsHelper.getAllPlayers();
+
+        StatsDTO stats = stats(get("/rest/players/stats"));
+        assertEquals("Игрок без уровня должен учитываться в общем количестве.", players.size() + 1, stats.getTotal());
+        assertEquals("Игрок без уровня не должен попадать в гистограмму уровней.",
+                Arrays.toString(levels(players)), Arrays.toString(stats.getLevels()));
+
+        mockMvc.perform(post("/rest/players/ban")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\": [" + id + "]}"))
+                .andExpect(status().isOk());
+        stats = stats(get("/rest/players/stats"));
+        assertEquals("Изменение игрока без уровня должно учитываться.",
+                testsHelper.getPlayerInfosByBaned(true, players).size() + 1, stats.getBanned());
+        assertEquals("Пересчёт из базы должен совпасть со счётчиками.",
+                mapper.writeValueAsString(stats(post("/rest/players/stats/recompute"))), mapper.writeValueAsString(stats));
+    }
+
+    //test5
+    @Test
+    public void staleEventsAreIgnored() throws Exception {
+        PlayerStatistics statistics = context.getBean(PlayerStatistics.class);
+        PlayerRepository playerRepository = context.getBean(PlayerRepository.class);
+        stats(get("/rest/players/stats"));
+        Player stale = playerRepository.findById(2L).get();
+        Player deleted = playerRepository.findById(5L).get();
+
+        mockMvc.perform(post("/rest/players/2")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"race\": \"TROLL\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/rest/players/5")).andExpect(status().isOk());
+        ReflectionTestUtils.setField(deleted, "version", deleted.getVersion() + 10);
+        statistics.playersChanged(Arrays.asList(stale, deleted));
+
+        StatsDTO incremental = stats(get("/rest/players/stats"));
+        assertEquals("Устаревшие события не должны менять счётчики.",
+                mapper.writeValueAsString(stats(post("/rest/players/stats/recompute"))), mapper.writeValueAsString(incremental));
+    }
+
+    private StatsDTO stats(MockHttpServletRequestBuilder request) throws Exception {
+        String content = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readValue(content, StatsDTO.class);
+    }
+
+    private static int[] levels(List<PlayerInfoTest> players) {
+        int highest = players.stream().mapToInt(player -> player.level).max().orElse(-1);
+        int[] levels = new int[highest + 1];
+        players.forEach(player -> levels[player.level]++);
+        return levels;
+    }
+}
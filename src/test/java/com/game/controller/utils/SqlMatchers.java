@@ -0,0 +1,59 @@
+package com.game.controller.utils;
+
+import com.game.config.SqlProfile;
+import com.game.controller.SqlBudgetInterceptor;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.util.function.ToIntFunction;
+
+import static org.springframework.test.util.AssertionErrors.assertNotNull;
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.util.AssertionErrors.fail;
+
+// Checks the SqlProfile the SqlBudgetInterceptor collected for a MockMvc request. Async requests are
+// already completed by AbstractTest when andExpect runs, so the profile is final.
+public final class SqlMatchers {
+
+    private SqlMatchers() {
+    }
+
+    public static ResultMatcher statements(int max) {
+        return atMost("SQL-запросов", max, SqlProfile::getStatements);
+    }
+
+    public static ResultMatcher rows(int max) {
+        return atMost("прочитанных строк", max, SqlProfile::getRows);
+    }
+
+    public static ResultMatcher entities(int max) {
+        return atMost("загруженных сущностей", max, SqlProfile::getEntities);
+    }
+
+    public static ResultMatcher repeats(int max) {
+        return atMost("повторов одного SQL-запроса", max, SqlProfile::getRepeats);
+    }
+
+    // The budgets of player.sql.budgets.
+    public static ResultMatcher withinBudget() {
+        return result -> {
+            Object violation = result.getRequest().getAttribute(SqlBudgetInterceptor.VIOLATION);
+            if (violation != null) {
+                fail("Превышен бюджет SQL: " + violation);
+            }
+        };
+    }
+
+    public static SqlProfile profile(MvcResult result) {
+        SqlProfile profile = (SqlProfile) result.getRequest().getAttribute(SqlBudgetInterceptor.PROFILE);
+        assertNotNull("Запрос не профилировался (player.sql.profiling.enabled)", profile);
+        return profile;
+    }
+
+    private static ResultMatcher atMost(String what, int max, ToIntFunction<SqlProfile> counter) {
+        return result -> {
+            SqlProfile profile = profile(result);
+            assertTrue("Слишком много " + what + ": " + profile, counter.applyAsInt(profile) <= max);
+        };
+    }
+}
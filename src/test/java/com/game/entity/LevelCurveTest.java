@@ -0,0 +1,82 @@
+package com.game.entity;
+
+import org.junit.Test;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.util.AssertionErrors.fail;
+
+public class LevelCurveTest {
+
+    //test1
+    @Test
+    public void tableMatchesDefinitionForEveryExperience() {
+        long level = 0;
+        for (int experience = 0; experience <= LevelCurve.MAX_EXPERIENCE; experience++) {
+            while (50 * (level + 1) * (level + 2) <= experience) {
+                level++;
+            }
+            long untilNextLevel = 50 * (level + 1) * (level + 2) - experience;
+            if (LevelCurve.level(experience) != level || LevelCurve.untilNextLevel(experience) != untilNextLevel) {
+                fail("Неверный уровень для опыта " + experience + ": " + LevelCurve.level(experience)
+                        + "/" + LevelCurve.untilNextLevel(experience) + " вместо " + level + "/" + untilNextLevel);
+            }
+        }
+        assertEquals("Максимальный уровень должен соответствовать максимальному опыту.", (int) level, LevelCurve.MAX_LEVEL);
+    }
+
+    //test2
+    @Test
+    public void sqlClosedFormMatchesTableForEveryExperience() {
+        // The same double arithmetic as LevelCurve.levelSql() evaluates in the database.
+        for (int experience = 0; experience <= LevelCurve.MAX_EXPERIENCE; experience++) {
+            int closedForm = (int) Math.floor((Math.sqrt(2500 + 200.0 * experience) - 50) / 100);
+            if (closedForm != LevelCurve.level(experience)) {
+                fail("Формула SQL расходится с таблицей для опыта " + experience);
+            }
+        }
+    }
+
+    //test3
+    @Test
+    public void levelBoundaries() {
+        assertEquals("Уровень при нулевом опыте.", 0, LevelCurve.level(0));
+        assertEquals("Опыт до второго уровня при нулевом опыте.", 100, LevelCurve.untilNextLevel(0));
+        assertEquals("Уровень на пороге.", 1, LevelCurve.level(100));
+        assertEquals("Уровень перед порогом.", 0, LevelCurve.level(99));
+        assertEquals("Уровень при максимальном опыте.", 446, LevelCurve.level(LevelCurve.MAX_EXPERIENCE));
+        assertEquals("Опыт до следующего уровня при максимальном опыте.", 50 * 447 * 448 - LevelCurve.MAX_EXPERIENCE,
+                LevelCurve.untilNextLevel(LevelCurve.MAX_EXPERIENCE));
+        assertEquals("Порог уровня.", 50 * 10 * 11, LevelCurve.experienceForLevel(10));
+    }
+
+    //test4
+    @Test
+    public void experienceOutOfRange() {
+        assertEquals("Отрицательный опыт недопустим.", false, LevelCurve.isValidExperience(-1));
+        assertEquals("Опыт больше максимального недопустим.", false, LevelCurve.isValidExperience(LevelCurve.MAX_EXPERIENCE + 1));
+        assertRejected(-1);
+        assertRejected(LevelCurve.MAX_EXPERIENCE + 1);
+    }
+
+    //test5
+    @Test
+    public void playerUsesCurrentExperience() {
+        Player player = new Player();
+        player.setExperience(5_000);
+        player.setExperience(63_986);
+        player.setLevel(null);
+        player.setUntilNextLevel(null);
+
+        assertEquals("Уровень игрока должен считаться по текущему опыту.", 35, player.getLevel());
+        assertEquals("Опыт до следующего уровня должен считаться по текущему опыту.", 2614, player.getUntilNextLevel());
+    }
+
+    private static void assertRejected(int experience) {
+        try {
+            LevelCurve.level(experience);
+            fail("Опыт " + experience + " должен отклоняться.");
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.game.service;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+
+public class OrderStatisticTreeTest {
+
+    private static final Comparator<long[]> RANKING = Comparator.<long[]>comparingLong(entry -> -entry[0])
+            .thenComparingLong(entry -> entry[1]);
+
+    //test1
+    @Test
+    public void matchesSortedListUnderRandomInsertsAndRemoves() {
+        Random random = new Random(7);
+        OrderStatisticTree tree = new OrderStatisticTree();
+        List<long[]> expected = new ArrayList<>();
+
+        for (int step = 0; step < 20_000; step++) {
+            if (expected.isEmpty() || random.nextInt(3) > 0) {
+                long[] entry = {random.nextInt(1000), step};
+                tree.insert((int) entry[0], entry[1]);
+                expected.add(entry);
+            } else {
+                long[] entry = expected.remove(random.nextInt(expected.size()));
+                tree.remove((int) entry[0], entry[1]);
+            }
+        }
+        expected.sort(RANKING);
+
+        assertEquals("Размер дерева.", expected.size(), tree.size());
+        for (int rank = 0; rank < expected.size(); rank += 97) {
+            long[] entry = expected.get(rank);
+            assertEquals("Ранг элемента.", rank, tree.rankOf((int) entry[0], entry[1]));
+        }
+        long[] top = tree.top(500, id -> true);
+        for (int i = 0; i < top.length; i++) {
+            assertEquals("Порядок первых элементов.", expected.get(i)[1], top[i]);
+        }
+        long[] evenTop = tree.top(10, id -> id % 2 == 0);
+        assertEquals("Фильтр должен применяться до ограничения количества.", 10, evenTop.length);
+    }
+}
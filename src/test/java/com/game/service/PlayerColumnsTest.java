@@ -0,0 +1,239 @@
+package com.game.service;
+
+import com.game.controller.PlayerOrder;
+import com.game.dto.FilterDTO;
+import com.game.dto.PlayerCursor;
+import com.game.entity.Player;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+import com.game.repository.PlayerSpecifications;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static java.util.Comparator.naturalOrder;
+import static java.util.Comparator.nullsFirst;
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+
+public class PlayerColumnsTest {
+
+    //test1
+    @Test
+    public void matchesListScanUnderRandomWrites() {
+        Random random = new Random(11);
+        Map<Long, Player> expected = new LinkedHashMap<>();
+        for (long id = 1; id <= 500; id++) {
+            expected.put(id, player(random, id));
+        }
+        PlayerColumns columns = PlayerColumns.load(new ArrayList<>(expected.values())::forEach);
+        long nextId = 501;
+
+        for (int step = 0; step < 3000; step++) {
+            int action = random.nextInt(10);
+            if (action < 3 || expected.isEmpty()) {
+                // Ids from another instance's block arrive out of order.
+                long id = random.nextInt(5) == 0 ? random.nextInt((int) nextId) + 1 : nextId++;
+                Player player = player(random, id);
+                expected.put(id, player);
+                columns.put(player);
+            } else if (action < 7) {
+                List<Long> ids = new ArrayList<>(expected.keySet());
+                long id = ids.get(random.nextInt(ids.size()));
+                expected.remove(id);
+                columns.remove(id);
+            } else {
+                List<Long> ids = new ArrayList<>(expected.keySet());
+                long id = ids.get(random.nextInt(ids.size()));
+                Player player = player(random, id);
+                expected.put(id, player);
+                columns.put(player);
+            }
+            if (step % 100 == 0) {
+                assertSameResults(random, new ArrayList<>(expected.values()), columns);
+            }
+        }
+        assertSameResults(random, new ArrayList<>(expected.values()), columns);
+    }
+
+    //test2
+    @Test
+    public void cursorWalksAcrossNullKeys() {
+        Random random = new Random(5);
+        List<Player> players = new ArrayList<>();
+        for (long id = 1; id <= 60; id++) {
+            Player player = player(random, id);
+            if (id % 4 == 0) player.setName(null);
+            if (id % 5 == 0) ReflectionTestUtils.setField(player, "experience", null);
+            if (id % 6 == 0) ReflectionTestUtils.setField(player, "level", null);
+            if (id % 7 == 0) player.setBirthday(null);
+            players.add(player);
+        }
+        PlayerColumns columns = PlayerColumns.load(players::forEach);
+        FilterDTO all = new FilterDTO();
+
+        for (PlayerOrder order : PlayerOrder.values()) {
+            List<Long> walked = new ArrayList<>();
+            PlayerCursor cursor = null;
+            while (true) {
+                long[] page = columns.page(all, order, cursor, 0, 4);
+                if (page.length == 0) break;
+                walked.addAll(toList(page));
+                Player last = players.get((int) page[page.length - 1] - 1);
+                cursor = PlayerCursor.decode(PlayerCursor.after(last, order).encode());
+            }
+            assertEquals("Обход по курсору в порядке " + order + " с NULL в начале.",
+                    ids(players.stream().sorted(comparator(order)).collect(Collectors.toList())), walked);
+        }
+    }
+
+    //test3
+    @Test
+    public void nullBannedMatchesNeitherFlag() {
+        Random random = new Random(7);
+        Map<Long, Player> players = new LinkedHashMap<>();
+        for (long id = 1; id <= 300; id++) {
+            Player player = player(random, id);
+            if (id % 3 == 0) player.setBanned(null);
+            players.put(id, player);
+        }
+        PlayerColumns columns = PlayerColumns.load(new ArrayList<>(players.values())::forEach);
+        assertBannedCounts(players, columns);
+
+        // Flags turning null and back through put, then enough deletes to compact the rows.
+        for (long id = 1; id <= 300; id += 2) {
+            Player player = player(random, id);
+            if (id % 5 == 0) player.setBanned(null);
+            players.put(id, player);
+            columns.put(player);
+        }
+        assertBannedCounts(players, columns);
+        for (long id = 1; id <= 200; id++) {
+            players.remove(id);
+            columns.remove(id);
+        }
+        assertBannedCounts(players, columns);
+    }
+
+    private static void assertBannedCounts(Map<Long, Player> players, PlayerColumns columns) {
+        for (boolean banned : new boolean[]{true, false}) {
+            FilterDTO filter = new FilterDTO();
+            filter.setBanned(banned);
+            List<Long> expected = players.values().stream()
+                    .filter(player -> Boolean.valueOf(banned).equals(player.getBanned()))
+                    .map(Player::getId)
+                    .sorted()
+                    .collect(Collectors.toList());
+            assertEquals("Количество игроков с banned=" + banned + " без NULL.", (long) expected.size(), columns.count(filter));
+            assertEquals("Игроки с banned=" + banned + " без NULL.", expected,
+                    toList(columns.page(filter, PlayerOrder.ID, null, 0, players.size())));
+        }
+    }
+
+    private static void assertSameResults(Random random, List<Player> players, PlayerColumns columns) {
+        assertEquals("Количество игроков.", (long) players.size(), (long) columns.size());
+        for (int i = 0; i < 20; i++) {
+            FilterDTO filter = filter(random);
+            List<Player> matching = players.stream().filter(predicate(filter)).collect(Collectors.toList());
+            assertEquals("Количество игроков по фильтру.", (long) matching.size(), columns.count(filter));
+
+            for (PlayerOrder order : PlayerOrder.values()) {
+                List<Player> sorted = matching.stream().sorted(comparator(order)).collect(Collectors.toList());
+                int offset = random.nextInt(Math.max(1, sorted.size()));
+                assertEquals("Страница в порядке " + order + ".", ids(sorted.subList(offset, Math.min(sorted.size(), offset + 7))),
+                        toList(columns.page(filter, order, null, offset, 7)));
+
+                if (!sorted.isEmpty()) {
+                    Player last = sorted.get(random.nextInt(sorted.size()));
+                    List<Player> after = sorted.subList(sorted.indexOf(last) + 1, sorted.size());
+                    assertEquals("Страница после курсора в порядке " + order + ".", ids(after.subList(0, Math.min(after.size(), 5))),
+                            toList(columns.page(filter, order, PlayerCursor.after(last, order), 0, 5)));
+                }
+            }
+        }
+    }
+
+    private static Player player(Random random, long id) {
+        Player player = new Player(
+                random.nextInt(8) == 0 ? "Игрок" : "Игрок" + random.nextInt(100),
+                "Титул " + random.nextInt(50),
+                Race.values()[random.nextInt(Race.values().length)],
+                Profession.values()[random.nextInt(Profession.values().length)],
+                random.nextInt(8) == 0 ? 5000 : random.nextInt(200_000),
+                Date.valueOf(LocalDate.of(2000, 1, 1).plusDays(random.nextInt(4000))),
+                random.nextBoolean());
+        ReflectionTestUtils.setField(player, "id", id);
+        return player;
+    }
+
+    private static FilterDTO filter(Random random) {
+        FilterDTO filter = new FilterDTO();
+        if (random.nextInt(4) == 0) filter.setName(String.valueOf(random.nextInt(10)));
+        if (random.nextInt(4) == 0) filter.setTitle("ул " + random.nextInt(5));
+        if (random.nextInt(3) == 0) filter.setRace(Race.values()[random.nextInt(Race.values().length)]);
+        if (random.nextInt(3) == 0) filter.setProfession(Profession.values()[random.nextInt(Profession.values().length)]);
+        if (random.nextInt(4) == 0) filter.setAfter(millis(random));
+        if (random.nextInt(4) == 0) filter.setBefore(millis(random));
+        if (random.nextInt(4) == 0) filter.setBanned(random.nextBoolean());
+        if (random.nextInt(4) == 0) filter.setMinExperience(random.nextInt(100_000));
+        if (random.nextInt(4) == 0) filter.setMaxExperience(random.nextInt(200_000));
+        if (random.nextInt(4) == 0) filter.setMinLevel(random.nextInt(30));
+        if (random.nextInt(4) == 0) filter.setMaxLevel(random.nextInt(60));
+        return filter;
+    }
+
+    // Arbitrary instants, not only midnights, to check the rounding of the birthday bounds.
+    private static long millis(Random random) {
+        return LocalDate.of(2000, 1, 1).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                + (long) random.nextInt(4000) * 86_400_000L + random.nextInt(86_400_000);
+    }
+
+    private static Predicate<Player> predicate(FilterDTO filter) {
+        return player -> (filter.getName() == null || player.getName().contains(filter.getName()))
+                && (filter.getTitle() == null || player.getTitle().contains(filter.getTitle()))
+                && (filter.getRace() == null || player.getRace() == filter.getRace())
+                && (filter.getProfession() == null || player.getProfession() == filter.getProfession())
+                && (filter.getAfter() == null || !player.getBirthday().before(PlayerSpecifications.firstDateNotBefore(filter.getAfter())))
+                && (filter.getBefore() == null || !player.getBirthday().after(PlayerSpecifications.lastDateNotAfter(filter.getBefore())))
+                && (filter.getBanned() == null || player.getBanned().equals(filter.getBanned()))
+                && (filter.getMinExperience() == null || player.getExperience() >= filter.getMinExperience())
+                && (filter.getMaxExperience() == null || player.getExperience() <= filter.getMaxExperience())
+                && (filter.getMinLevel() == null || player.getLevel() >= filter.getMinLevel())
+                && (filter.getMaxLevel() == null || player.getLevel() <= filter.getMaxLevel());
+    }
+
+    private static Comparator<Player> comparator(PlayerOrder order) {
+        Comparator<Player> byId = Comparator.comparing(Player::getId);
+        switch (order) {
+            case NAME:
+                return Comparator.comparing(Player::getName, nullsFirst(naturalOrder())).thenComparing(byId);
+            case EXPERIENCE:
+                return Comparator.comparing(Player::getExperience, nullsFirst(naturalOrder())).thenComparing(byId);
+            case LEVEL:
+                return Comparator.comparing(Player::getLevel, nullsFirst(naturalOrder())).thenComparing(byId);
+            case BIRTHDAY:
+                return Comparator.comparing(Player::getBirthday, nullsFirst(naturalOrder())).thenComparing(byId);
+            default:
+                return byId;
+        }
+    }
+
+    private static List<Long> ids(List<Player> players) {
+        return players.stream().map(Player::getId).collect(Collectors.toList());
+    }
+
+    private static List<Long> toList(long[] ids) {
+        return Arrays.stream(ids).boxed().collect(Collectors.toList());
+    }
+}
@@ -1,20 +1,29 @@
 DROP TABLE IF EXISTS player;
+DROP TABLE IF EXISTS player_seq;
 
 CREATE TABLE player
 (
     id             BIGINT(20)  NOT NULL AUTO_INCREMENT,
     name           VARCHAR(12) NULL,
     title          VARCHAR(30) NULL,
-    race           VARCHAR(20) NULL,
-    profession     VARCHAR(20) NULL,
+    race           ENUM ('HUMAN', 'DWARF', 'ELF', 'GIANT', 'ORC', 'TROLL', 'HOBBIT') NULL,
+    profession     ENUM ('WARRIOR', 'ROGUE', 'SORCERER', 'CLERIC', 'PALADIN', 'NAZGUL', 'WARLOCK', 'DRUID') NULL,
     birthday       DATE        NULL,
     banned         BIT(1)      NULL,
     experience     INT(10)     NULL,
     level          INT(3)      NULL,
     untilNextLevel INT(10)     NULL,
+    version        BIGINT(20)  NOT NULL DEFAULT 0,
     PRIMARY KEY (id)
 );
 
+CREATE INDEX idx_player_name ON player (name);
+CREATE INDEX idx_player_experience ON player (experience);
+CREATE INDEX idx_player_level ON player (level);
+CREATE INDEX idx_player_birthday ON player (birthday);
+CREATE INDEX idx_player_race_profession_experience ON player (race, profession, experience);
+CREATE INDEX idx_player_profession_experience ON player (profession, experience);
+
 INSERT INTO player(name, title, race, profession, birthday, banned, experience, level, untilNextLevel)
 VALUES ('Ниус', 'Приходящий Без Шума', 'HOBBIT', 'ROGUE', '2010-10-12', false, 58347, 33, 1153)
      , ('Никрашш', 'НайтВульф', 'ORC', 'WARLOCK', '2010-02-14', false, 174403, 58, 2597)
@@ -55,4 +64,13 @@ VALUES ('Ниус', 'Приходящий Без Шума', 'HOBBIT', 'ROGUE', '
      , ('Яра', 'Прельстивая', 'HUMAN', 'CLERIC', '2004-06-12', false, 138306, 52, 4794)
      , ('Иллинас', 'Иероглиф', 'HOBBIT', 'WARRIOR', '2007-06-03', false, 115546, 47, 2054)
      , ('Ардонг', 'Вспышк A', 'HUMAN', 'WARLOCK', '2009-09-16', false, 24984, 21, 316)
-     , ('Аттирис', 'и.о.Карвандоса', 'ELF', 'SORCERER', '2010-04-15', true, 60520, 34, 2480);
\ No newline at end of file
+     , ('Аттирис', 'и.о.Карвандоса', 'ELF', 'SORCERER', '2010-04-15', true, 60520, 34, 2480);
+
+CREATE TABLE player_seq
+(
+    next_val BIGINT(20) NOT NULL
+);
+
+INSERT INTO player_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 1
+FROM player;